@@ -0,0 +1,76 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.comment.mapper.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemOwnerDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+    @Param({"10", "1000"})
+    private int size;
+
+    private List<Booking> bookings;
+    private List<Comment> comments;
+    private Item item;
+    private LocalDateTime last;
+    private LocalDateTime next;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = new User(1, "owner", "owner@mail.ru");
+        User booker = new User(2, "booker", "booker@mail.ru");
+        item = new Item(1, "Дрель", "Аккумуляторная дрель", owner, null, true, 0L);
+        bookings = new ArrayList<>(size);
+        comments = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            bookings.add(Booking.builder()
+                    .id(i + 1)
+                    .start(now.minusDays(i + 2))
+                    .end(now.minusDays(i + 1))
+                    .item(item)
+                    .booker(booker)
+                    .status(BookingStatus.APPROVED)
+                    .build());
+            comments.add(new Comment(i + 1, "комментарий " + i, booker, item, now.minusHours(i)));
+        }
+        last = now.minusDays(1);
+        next = now.plusDays(1);
+    }
+
+    @Benchmark
+    public Collection<BookingDto> bookingsToDto() {
+        return BookingMapper.toDto(bookings);
+    }
+
+    @Benchmark
+    public ItemOwnerDto itemToOwnerDto() {
+        return ItemMapper.toItemOwnerDto(item, last, next, comments);
+    }
+
+    @Benchmark
+    public Set<CommentDto> commentsToDto() {
+        return CommentMapper.toCommentDto(comments);
+    }
+}
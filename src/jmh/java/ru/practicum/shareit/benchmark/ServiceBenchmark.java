@@ -0,0 +1,124 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.dao.CommentRepository;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemOwnerPageDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Горячие пути сервисов на H2 в памяти, заполненной одним владельцем с большим числом вещей и бронирований.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ServiceBenchmark {
+    private static final int ITEMS = 200;
+    private static final int BOOKERS = 20;
+    private static final int BOOKINGS_PER_ITEM = 25;
+    private static final int COMMENTS_PER_ITEM = 10;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private BookingService bookingService;
+    private int ownerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .properties("spring.main.web-application-type=none",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "shareit.rate-limit.enabled=false",
+                        "logging.level.root=WARN",
+                        "logging.level.ru.practicum.shareit=WARN")
+                .run();
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+        seed(context.getBean(UserRepository.class), context.getBean(ItemRepository.class),
+                context.getBean(BookingRepository.class), context.getBean(CommentRepository.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ItemOwnerPageDto getItemsWithBookingsAndComments() {
+        return itemService.getItemsWithBookingsAndComments(ownerId, null, null);
+    }
+
+    @Benchmark
+    public BookingPageDto findAllByItemOwnerAndState() {
+        return bookingService.findAllByItemOwnerAndState(ownerId, "ALL", null, null);
+    }
+
+    @Benchmark
+    public BookingPageDto findFirstPageByItemOwnerAndState() {
+        return bookingService.findAllByItemOwnerAndState(ownerId, "ALL", null, 20);
+    }
+
+    @Benchmark
+    public Collection<ItemDto> search() {
+        return itemService.search("дрель");
+    }
+
+    private void seed(UserRepository userRepository, ItemRepository itemRepository,
+                      BookingRepository bookingRepository, CommentRepository commentRepository) {
+        User owner = userRepository.save(new User(null, "owner", "owner@benchmark.ru"));
+        ownerId = owner.getId();
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            bookers.add(userRepository.save(new User(null, "booker" + i, "booker" + i + "@benchmark.ru")));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ITEMS; i++) {
+            ItemCreateDto newItem = new ItemCreateDto();
+            newItem.setName(i % 2 == 0 ? "Дрель " + i : "Отвертка " + i);
+            newItem.setDescription("Инструмент номер " + i);
+            newItem.setAvailable(true);
+            Item item = itemRepository.findById(itemService.create(newItem, ownerId).getId()).orElseThrow();
+            List<Booking> bookings = new ArrayList<>();
+            for (int j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                LocalDateTime start = now.plusDays(j * 2L - BOOKINGS_PER_ITEM);
+                bookings.add(Booking.builder()
+                        .start(start)
+                        .end(start.plusDays(1))
+                        .item(item)
+                        .booker(bookers.get(j % BOOKERS))
+                        .status(BookingStatus.APPROVED)
+                        .build());
+            }
+            bookingRepository.saveAll(bookings);
+            List<Comment> comments = new ArrayList<>();
+            for (int j = 0; j < COMMENTS_PER_ITEM; j++) {
+                comments.add(new Comment(0, "комментарий " + j, bookers.get(j % BOOKERS), item, now));
+            }
+            commentRepository.saveAll(comments);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package ru.practicum.shareit.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Нагрузочный прогон REST API. Без --target поднимает приложение на H2 (профиль test)
+ * на случайном порту, заполняет его данными и гоняет смесь запросов из виртуальных потоков.
+ * Закрытая модель держит постоянное число клиентов, открытая подает запросы с заданной частотой
+ * и считает задержку от запланированного момента отправки.
+ */
+@Slf4j
+public class LoadTest {
+    private final LoadTestConfig config;
+    private final HttpClient client;
+    private final String baseUrl;
+    private final SeedData seed;
+    private final Workload[] workloads;
+    private final int[] cumulativeWeights;
+
+    private LoadTest(LoadTestConfig config, HttpClient client, String baseUrl, SeedData seed) {
+        this.config = config;
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.seed = seed;
+        this.workloads = config.getMix().keySet().toArray(new Workload[0]);
+        this.cumulativeWeights = new int[workloads.length];
+        int total = 0;
+        for (int i = 0; i < workloads.length; i++) {
+            total += config.getMix().get(workloads[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        report(config, execute(config));
+    }
+
+    static Map<Workload, EndpointStats> execute(LoadTestConfig config) throws Exception {
+        ConfigurableApplicationContext context = null;
+        String baseUrl = config.getTarget();
+        if (baseUrl == null) {
+            SpringApplicationBuilder application = new SpringApplicationBuilder(ShareItApp.class)
+                    .properties("server.port=0",
+                            "shareit.rate-limit.enabled=false",
+                            "logging.level.root=WARN",
+                            "logging.level.ru.practicum.shareit=WARN");
+            if (config.getThreads() == LoadTestConfig.Threads.VIRTUAL) {
+                application.profiles("test", "virtual");
+            } else {
+                application.profiles("test");
+            }
+            context = application.run();
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+        try (HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build()) {
+            log.warn("заполнение данных на {}", baseUrl);
+            SeedData seed = SeedData.create(client, baseUrl, config);
+            LoadTest loadTest = new LoadTest(config, client, baseUrl, seed);
+            log.warn("прогрев {}", config.getWarmup());
+            loadTest.run(config.getWarmup());
+            log.warn("замер {}, модель {}, потоки {}", config.getDuration(), config.getModel(), config.getThreads());
+            return loadTest.run(config.getDuration());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private Map<Workload, EndpointStats> run(Duration duration) {
+        Map<Workload, EndpointStats> stats = new EnumMap<>(Workload.class);
+        for (Workload workload : workloads) {
+            stats.put(workload, new EndpointStats());
+        }
+        if (config.getModel() == LoadTestConfig.Model.CLOSED) {
+            runClosed(duration, stats);
+        } else {
+            runOpen(duration, stats);
+        }
+        return stats;
+    }
+
+    private void runClosed(Duration duration, Map<Workload, EndpointStats> stats) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.getConcurrency(); i++) {
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        send(pickWorkload(), System.nanoTime(), stats);
+                    }
+                });
+            }
+        }
+    }
+
+    private void runOpen(Duration duration, Map<Workload, EndpointStats> stats) {
+        long interval = 1_000_000_000L / config.getRate();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long intended = start; intended < end; intended += interval) {
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long scheduled = intended;
+                executor.submit(() -> send(pickWorkload(), scheduled, stats));
+            }
+        }
+    }
+
+    private void send(Workload workload, long intendedStart, Map<Workload, EndpointStats> stats) {
+        EndpointStats endpoint = stats.get(workload);
+        try {
+            HttpResponse<Void> response = client.send(workload.request(baseUrl, seed), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 400) {
+                endpoint.errors.increment();
+            }
+        } catch (Exception exception) {
+            endpoint.errors.increment();
+        }
+        endpoint.latency.record((System.nanoTime() - intendedStart) / 1_000);
+    }
+
+    private Workload pickWorkload() {
+        int point = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (point < cumulativeWeights[i]) {
+                return workloads[i];
+            }
+        }
+        return workloads[workloads.length - 1];
+    }
+
+    static void report(LoadTestConfig config, Map<Workload, EndpointStats> stats) {
+        double seconds = config.getDuration().toMillis() / 1000.0;
+        System.out.printf("%-22s %10s %8s %10s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<Workload, EndpointStats> entry : stats.entrySet()) {
+            LatencyHistogram latency = entry.getValue().latency;
+            long count = latency.totalCount();
+            System.out.printf("%-22s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                    entry.getKey().getTitle(),
+                    count,
+                    entry.getValue().errors.sum(),
+                    count / seconds,
+                    latency.valueAtPercentile(50) / 1000.0,
+                    latency.valueAtPercentile(99) / 1000.0,
+                    latency.valueAtPercentile(99.9) / 1000.0,
+                    latency.maxValue() / 1000.0);
+        }
+    }
+
+    static class EndpointStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+    }
+}
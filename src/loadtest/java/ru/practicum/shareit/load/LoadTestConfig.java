@@ -0,0 +1,77 @@
+package ru.practicum.shareit.load;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Параметры прогона, задаются аргументами вида --key=value.
+ */
+@Getter
+public class LoadTestConfig {
+    public enum Model {
+        CLOSED, OPEN
+    }
+
+    public enum Threads {
+        PLATFORM, VIRTUAL
+    }
+
+    private Model model = Model.CLOSED;
+    private Threads threads = Threads.PLATFORM;
+    private String target;
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(30);
+    private int concurrency = 64;
+    private int rate = 500;
+    private int owners = 20;
+    private int bookers = 200;
+    private int itemsPerOwner = 50;
+    private int bookingsPerBooker = 20;
+    private final Map<Workload, Integer> mix = new EnumMap<>(Workload.class);
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("ожидается аргумент вида --key=value: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        LoadTestConfig config = new LoadTestConfig();
+        for (Map.Entry<String, String> option : options.entrySet()) {
+            String value = option.getValue();
+            switch (option.getKey()) {
+                case "model" -> config.model = Model.valueOf(value.toUpperCase());
+                case "threads" -> config.threads = Threads.valueOf(value.toUpperCase());
+                case "target" -> config.target = value;
+                case "warmup" -> config.warmup = Duration.parse("PT" + value.toUpperCase());
+                case "duration" -> config.duration = Duration.parse("PT" + value.toUpperCase());
+                case "concurrency" -> config.concurrency = Integer.parseInt(value);
+                case "rate" -> config.rate = Integer.parseInt(value);
+                case "owners" -> config.owners = Integer.parseInt(value);
+                case "bookers" -> config.bookers = Integer.parseInt(value);
+                case "items-per-owner" -> config.itemsPerOwner = Integer.parseInt(value);
+                case "bookings-per-booker" -> config.bookingsPerBooker = Integer.parseInt(value);
+                case "mix" -> config.parseMix(value);
+                default -> throw new IllegalArgumentException("неизвестный параметр: " + option.getKey());
+            }
+        }
+        if (config.mix.isEmpty()) {
+            for (Workload workload : Workload.values()) {
+                config.mix.put(workload, workload.getDefaultWeight());
+            }
+        }
+        return config;
+    }
+
+    private void parseMix(String value) {
+        for (String part : value.split(",")) {
+            String[] weight = part.split(":");
+            mix.put(Workload.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+        }
+    }
+}
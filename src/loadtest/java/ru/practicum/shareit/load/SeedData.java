@@ -0,0 +1,126 @@
+package ru.practicum.shareit.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Заполняет приложение пользователями, вещами и бронированиями через REST API.
+ */
+@RequiredArgsConstructor
+public class SeedData {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final List<String> ITEM_NAMES = List.of("Дрель", "Отвертка", "Пила", "Drill", "Saw", "Гаечный ключ");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final int[] ownerIds;
+    private final int[] bookerIds;
+
+    public static SeedData create(HttpClient client, String baseUrl, LoadTestConfig config) throws Exception {
+        Seeder seeder = new Seeder(client, baseUrl, System.currentTimeMillis());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Integer>> owners = new ArrayList<>();
+            List<Future<List<Integer>>> ownerItems = new ArrayList<>();
+            for (int i = 0; i < config.getOwners(); i++) {
+                int owner = i;
+                Future<Integer> ownerId = executor.submit(() -> seeder.createUser("owner" + owner));
+                owners.add(ownerId);
+                ownerItems.add(executor.submit(() -> seeder.createItems(ownerId.get(), config.getItemsPerOwner())));
+            }
+            List<Integer> items = new ArrayList<>();
+            for (Future<List<Integer>> created : ownerItems) {
+                items.addAll(created.get());
+            }
+            List<Future<Integer>> bookers = new ArrayList<>();
+            for (int i = 0; i < config.getBookers(); i++) {
+                int booker = i;
+                bookers.add(executor.submit(() -> {
+                    int bookerId = seeder.createUser("booker" + booker);
+                    seeder.createBookings(bookerId, items, config.getBookingsPerBooker());
+                    return bookerId;
+                }));
+            }
+            return new SeedData(toArray(owners), toArray(bookers));
+        }
+    }
+
+    int randomOwner() {
+        return ownerIds[ThreadLocalRandom.current().nextInt(ownerIds.length)];
+    }
+
+    int randomBooker() {
+        return bookerIds[ThreadLocalRandom.current().nextInt(bookerIds.length)];
+    }
+
+    private static int[] toArray(List<Future<Integer>> ids) throws Exception {
+        int[] result = new int[ids.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ids.get(i).get();
+        }
+        return result;
+    }
+
+    @RequiredArgsConstructor
+    private static class Seeder {
+        private final HttpClient client;
+        private final String baseUrl;
+        private final long runId;
+
+        int createUser(String name) throws IOException, InterruptedException {
+            return post("/users", null, Map.of("name", name, "email", name + "-" + runId + "@load.test"));
+        }
+
+        List<Integer> createItems(int ownerId, int count) throws IOException, InterruptedException {
+            List<Integer> items = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                String name = ITEM_NAMES.get(i % ITEM_NAMES.size());
+                items.add(post("/items", ownerId, Map.of(
+                        "name", name + " " + i,
+                        "description", name + " для нагрузочного теста",
+                        "available", true)));
+            }
+            return items;
+        }
+
+        void createBookings(int bookerId, List<Integer> items, int count) throws IOException, InterruptedException {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            for (int i = 0; i < count; i++) {
+                LocalDateTime start = now.plusHours(1 + random.nextInt(24 * 60));
+                post("/bookings", bookerId, Map.of(
+                        "itemId", items.get(random.nextInt(items.size())),
+                        "start", start.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                        "end", start.plusHours(1 + random.nextInt(72)).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)));
+            }
+        }
+
+        private int post(String path, Integer userId, Map<String, Object> body) throws IOException, InterruptedException {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(body)));
+            if (userId != null) {
+                request.header(USER_HEADER, String.valueOf(userId));
+            }
+            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 300) {
+                throw new IllegalStateException(path + " вернул " + response.statusCode() + ": " + response.body());
+            }
+            return MAPPER.readTree(response.body()).get("id").asInt();
+        }
+    }
+}
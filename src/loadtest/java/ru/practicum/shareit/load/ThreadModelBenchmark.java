@@ -0,0 +1,25 @@
+package ru.practicum.shareit.load;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сравнивает обработку запросов на платформенных и виртуальных потоках при высокой
+ * конкурентности на списках бронирований. Аргументы те же, что у {@link LoadTest},
+ * по умолчанию 1000 клиентов и только /bookings и /bookings/owner.
+ */
+public class ThreadModelBenchmark {
+    private static final List<String> DEFAULTS = List.of("--concurrency=1000", "--mix=bookings:50,owner_bookings:50");
+
+    public static void main(String[] args) throws Exception {
+        for (LoadTestConfig.Threads threads : LoadTestConfig.Threads.values()) {
+            List<String> arguments = new ArrayList<>(DEFAULTS);
+            arguments.addAll(List.of(args));
+            arguments.add("--threads=" + threads.name().toLowerCase());
+            LoadTestConfig config = LoadTestConfig.parse(arguments.toArray(new String[0]));
+            System.out.println();
+            System.out.println("== " + threads);
+            LoadTest.report(config, LoadTest.execute(config));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.load;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Виды запросов нагрузки и их доля по умолчанию.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum Workload {
+    USERS("GET /users", 5),
+    ITEMS("GET /items", 20),
+    SEARCH("GET /items/search", 35),
+    BOOKINGS("GET /bookings", 25),
+    OWNER_BOOKINGS("GET /bookings/owner", 15);
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final List<String> STATES = List.of("ALL", "ALL", "CURRENT", "PAST", "FUTURE", "WAITING");
+    private static final List<String> SEARCH_TEXTS = List.of("дрель", "отвертка", "пила", "drill", "saw", "ключ");
+
+    private final String title;
+    private final int defaultWeight;
+
+    HttpRequest request(String baseUrl, SeedData seed) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (this) {
+            case USERS -> get(baseUrl + "/users", seed.randomBooker());
+            case ITEMS -> get(baseUrl + "/items", seed.randomOwner());
+            case SEARCH -> get(baseUrl + "/items/search?text="
+                    + URLEncoder.encode(SEARCH_TEXTS.get(random.nextInt(SEARCH_TEXTS.size())), StandardCharsets.UTF_8),
+                    seed.randomBooker());
+            case BOOKINGS -> get(baseUrl + "/bookings?state=" + STATES.get(random.nextInt(STATES.size())),
+                    seed.randomBooker());
+            case OWNER_BOOKINGS -> get(baseUrl + "/bookings/owner?state=" + STATES.get(random.nextInt(STATES.size())),
+                    seed.randomOwner());
+        };
+    }
+
+    private static HttpRequest get(String url, int userId) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header(USER_HEADER, String.valueOf(userId))
+                .GET()
+                .build();
+    }
+}
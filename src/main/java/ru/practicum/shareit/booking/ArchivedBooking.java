@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.*;
+import lombok.*;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Завершенное одобренное бронирование, перенесенное из booking в booking_archive.
+ * Сохраняет идентификатор и версию исходной записи и больше не изменяется.
+ */
+@Entity
+@Table(name = "booking_archive")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED, force = true)
+public class ArchivedBooking {
+    @Id
+    private Integer id;
+
+    @Column(name = "start_at", nullable = false)
+    private LocalDateTime start;
+    @Column(name = "end_at", nullable = false)
+    private LocalDateTime end;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id")
+    private Item item;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booker_id")
+    private User booker;
+
+    @Enumerated(value = EnumType.STRING)
+    private BookingStatus status;
+
+    private Long version;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -20,7 +20,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor(access = AccessLevel.PROTECTED, force = true)
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 100)
     private Integer id;
 
     @Column(name = "start_at", nullable = false)
@@ -38,4 +39,7 @@ public class Booking {
 
     @Enumerated(value = EnumType.STRING)
     private BookingStatus status;
+
+    @Version
+    private Long version;
 }
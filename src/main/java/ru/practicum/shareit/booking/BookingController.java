@@ -1,14 +1,34 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.event.BookingEventBroadcaster;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+import ru.practicum.shareit.metrics.QueryBudget;
+import ru.practicum.shareit.ratelimit.RateLimit;
+import ru.practicum.shareit.ratelimit.RateLimitGroup;
+import ru.practicum.shareit.util.IdempotencyStore;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * TODO Sprint add-bookings.
@@ -17,36 +37,132 @@ import java.util.Collection;
 @RequestMapping("/bookings")
 @RequiredArgsConstructor
 public class BookingController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
+    private final BookingEventBroadcaster bookingEventBroadcaster;
+    private final IdempotencyStore idempotencyStore;
 
     @PostMapping
+    @QueryBudget(5)
     @ResponseStatus(HttpStatus.CREATED)
-    public BookingDto createBooking(@Validated @RequestBody BookingCreateDto newBooking, @RequestHeader(name = "X-Sharer-User-Id") int userId) {
-        return bookingService.createBooking(newBooking, userId);
+    public BookingDto createBooking(@Validated @RequestBody BookingCreateDto newBooking,
+                                    @RequestHeader(name = "X-Sharer-User-Id") int userId,
+                                    @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, userId, "POST /bookings", newBooking,
+                () -> bookingService.createBooking(newBooking, userId));
+    }
+
+    @PostMapping("/batch")
+    @QueryBudget(110)
+    public List<BookingBatchResultDto> createBookings(@RequestBody List<BookingCreateDto> newBookings,
+                                                      @RequestHeader(name = "X-Sharer-User-Id") int userId) {
+        return bookingService.createBookings(newBookings, userId);
     }
 
     @PatchMapping("/{bookingId}")
+    @QueryBudget(7)
     public BookingDto approveBooking(@PathVariable int bookingId,
                                      @RequestHeader(name = "X-Sharer-User-Id") int userId,
                                      @RequestParam(name = "approved") boolean approved) {
         return bookingService.approveBooking(bookingId, userId, approved);
     }
 
+    @PatchMapping("/batch")
+    @QueryBudget(5)
+    public BookingDecisionResultDto decideBookings(@RequestBody List<Integer> bookingIds,
+                                                   @RequestHeader(name = "X-Sharer-User-Id") int userId,
+                                                   @RequestParam(name = "approved") boolean approved) {
+        return bookingService.decideBookings(bookingIds, userId, approved);
+    }
+
     @GetMapping("/{bookingId}")
-    public BookingDto findById(@PathVariable int bookingId,
-                               @RequestHeader(name = "X-Sharer-User-Id") int userId) {
-        return bookingService.findById(bookingId, userId);
+    @QueryBudget(5)
+    public ResponseEntity<BookingDto> findById(@PathVariable int bookingId,
+                                               @RequestHeader(name = "X-Sharer-User-Id") int userId,
+                                               WebRequest request) {
+        String eTag = bookingService.getETag(bookingId, userId);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(bookingService.findById(bookingId, userId));
     }
 
     @GetMapping
-    public Collection<BookingDto> findAllBookingsOfUser(@RequestHeader(name = "X-Sharer-User-Id") int userId,
-                                                        @RequestParam(name = "state", required = false, defaultValue = "ALL") String state) {
-        return bookingService.findAllByBookerAndState(userId, state);
+    @QueryBudget(4)
+    @RateLimit(RateLimitGroup.LIST)
+    public ResponseEntity<Collection<BookingDto>> findAllBookingsOfUser(@RequestHeader(name = "X-Sharer-User-Id") int userId,
+                                                                        @RequestParam(name = "state", required = false, defaultValue = "ALL") String state,
+                                                                        @RequestParam(name = "after", required = false) String after,
+                                                                        @RequestParam(name = "size", required = false) Integer size) {
+        return toResponse(bookingService.findAllByBookerAndState(userId, state, after, size));
     }
 
     @GetMapping("/owner")
-    public Collection<BookingDto> findAllBookingsByItemsOwner(@RequestHeader(name = "X-Sharer-User-Id") int ownerId,
-                                                              @RequestParam(name = "state", required = false, defaultValue = "ALL") String state) {
-        return bookingService.findAllByItemOwnerAndState(ownerId, state);
+    @QueryBudget(5)
+    @RateLimit(RateLimitGroup.LIST)
+    public ResponseEntity<Collection<BookingDto>> findAllBookingsByItemsOwner(@RequestHeader(name = "X-Sharer-User-Id") int ownerId,
+                                                                              @RequestParam(name = "state", required = false, defaultValue = "ALL") String state,
+                                                                              @RequestParam(name = "after", required = false) String after,
+                                                                              @RequestParam(name = "size", required = false) Integer size) {
+        return toResponse(bookingService.findAllByItemOwnerAndState(ownerId, state, after, size));
+    }
+
+    @GetMapping("/summary")
+    @QueryBudget(3)
+    public BookingSummaryDto getSummaryOfUser(@RequestHeader(name = "X-Sharer-User-Id") int userId) {
+        return bookingService.getSummaryByBooker(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    @QueryBudget(3)
+    public BookingSummaryDto getSummaryByItemsOwner(@RequestHeader(name = "X-Sharer-User-Id") int ownerId) {
+        return bookingService.getSummaryByItemOwner(ownerId);
+    }
+
+    /**
+     * Поток событий booking-status по бронированиям, где пользователь арендатор или владелец вещи,
+     * вместо опроса GET /bookings/{bookingId} и /bookings/owner?state=WAITING.
+     * Сверх лимита подписок отвечает 429 без тела: клиент принимает только text/event-stream,
+     * и JSON с ошибкой ему не отдать.
+     */
+    @GetMapping(value = "/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(@RequestHeader(name = "X-Sharer-User-Id") int userId) {
+        try {
+            return ResponseEntity.ok(bookingEventBroadcaster.subscribe(userId));
+        } catch (TooManyRequestsException exception) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                    .build();
+        }
+    }
+
+    /**
+     * Вся история бронирований владельца в формате NDJSON: строки пишутся в ответ по мере чтения из базы.
+     */
+    @GetMapping(value = "/owner/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @RateLimit(RateLimitGroup.LIST)
+    public ResponseEntity<StreamingResponseBody> exportBookingsByItemsOwner(@RequestHeader(name = "X-Sharer-User-Id") int ownerId) {
+        bookingService.checkItemOwner(ownerId);
+        StreamingResponseBody body = outputStream -> {
+            bookingService.exportAllByItemOwner(ownerId, booking -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(booking));
+                    outputStream.write('\n');
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            });
+            outputStream.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private ResponseEntity<Collection<BookingDto>> toResponse(BookingPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
     }
 }
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.booking.dao;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.ArchivedBooking;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.dto.ItemLastBookingDto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Архив содержит только завершенные одобренные бронирования, поэтому из состояний
+ * в нем имеют смысл только ALL и PAST, и для них это один и тот же запрос.
+ */
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Integer> {
+
+    @Query("""
+            SELECT new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status, u.id, u.name, i.id, i.name)
+            FROM ArchivedBooking b
+            JOIN b.booker u
+            JOIN b.item i
+            WHERE u.id = :bookerId AND
+            (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId))
+            ORDER BY b.start DESC, b.id DESC
+            """)
+    List<BookingDto> findAllByBookerId(@Param("bookerId") int bookerId,
+                                       @Param("afterStart") LocalDateTime afterStart,
+                                       @Param("afterId") int afterId,
+                                       Pageable pageable);
+
+    @Query("""
+            SELECT new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status, u.id, u.name, i.id, i.name)
+            FROM ArchivedBooking b
+            JOIN b.booker u
+            JOIN b.item i
+            WHERE i.owner.id = :ownerId AND
+            (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId))
+            ORDER BY b.start DESC, b.id DESC
+            """)
+    List<BookingDto> findAllByItemOwner(@Param("ownerId") int ownerId,
+                                        @Param("afterStart") LocalDateTime afterStart,
+                                        @Param("afterId") int afterId,
+                                        Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status, u.id, u.name, i.id, i.name)
+            FROM ArchivedBooking b
+            JOIN b.booker u
+            JOIN b.item i
+            WHERE i.owner.id = :ownerId
+            ORDER BY b.start DESC, b.id DESC
+            """)
+    Stream<BookingDto> streamAllByItemOwner(@Param("ownerId") int ownerId);
+
+    @Query("SELECT COUNT(b) FROM ArchivedBooking b WHERE b.booker.id = :bookerId")
+    long countByBookerId(@Param("bookerId") int bookerId);
+
+    @Query("SELECT COUNT(b) FROM ArchivedBooking b JOIN b.item i WHERE i.owner.id = :ownerId")
+    long countByItemOwner(@Param("ownerId") int ownerId);
+
+    @Query("""
+            SELECT COUNT(b) > 0 FROM ArchivedBooking b
+            WHERE b.booker.id = :bookerId AND
+            b.item.id = :itemId
+            """)
+    boolean existByBookerIdAndItemId(@Param("bookerId") int bookerId, @Param("itemId") int itemId);
+
+    @Query("""
+            SELECT new ru.practicum.shareit.item.dto.ItemLastBookingDto(b.item.id, MAX(b.end))
+            FROM ArchivedBooking b
+            WHERE b.item.id IN :itemIds
+            GROUP BY b.item.id
+            """)
+    List<ItemLastBookingDto> findLastEndsByItemIds(@Param("itemIds") Collection<Integer> itemIds);
+
+    /**
+     * Копирует бронирования в архив, удалять их из booking должен тот же вызывающий в той же транзакции.
+     */
+    @Modifying
+    @Query("""
+            INSERT INTO ArchivedBooking (id, start, end, item, booker, status, version, archivedAt)
+            SELECT b.id, b.start, b.end, b.item, b.booker, b.status, b.version, :archivedAt
+            FROM Booking b
+            WHERE b.id IN :bookingIds
+            """)
+    int copyFromBookings(@Param("bookingIds") Collection<Integer> bookingIds,
+                         @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Query("SELECT COALESCE(MAX(b.id), 0) FROM ArchivedBooking b")
+    int findMaxId();
+}
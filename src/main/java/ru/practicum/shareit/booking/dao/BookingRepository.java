@@ -1,162 +1,331 @@
 package ru.practicum.shareit.booking.dao;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Integer> {
 
     @Query("""
-            SELECT b FROM Booking b
-            JOIN FETCH b.booker
-            JOIN FETCH b.item
-            WHERE b.booker.id = :bookerId
-            ORDER BY b.start DESC
+            SELECT new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status, u.id, u.name, i.id, i.name)
+            FROM Booking b
+            JOIN b.booker u
+            JOIN b.item i
+            WHERE u.id = :bookerId AND
+            (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId))
+            ORDER BY b.start DESC, b.id DESC
             """)
-    Collection<Booking> findAllByBookerId(@Param("bookerId") int bookerId);
+    List<BookingDto> findAllByBookerId(@Param("bookerId") int bookerId,
+                                       @Param("afterStart") LocalDateTime afterStart,
+                                       @Param("afterId") int afterId,
+                                       Pageable pageable);
 
     @Query("""
-            SELECT b FROM Booking b
-            JOIN FETCH b.booker
-            JOIN FETCH b.item
-            WHERE b.booker.id = :bookerId AND
-            b.start <= CURRENT_TIMESTAMP AND b.end >= CURRENT_TIMESTAMP
-            ORDER BY b.start DESC
+            SELECT new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status, u.id, u.name, i.id, i.name)
+            FROM Booking b
+            JOIN b.booker u
+            JOIN b.item i
+            WHERE u.id = :bookerId AND
+            b.start <= CURRENT_TIMESTAMP AND b.end >= CURRENT_TIMESTAMP AND
+            (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId))
+            ORDER BY b.start DESC, b.id DESC
             """)
-    Collection<Booking> findAllCurrentByBooker(@Param("bookerId") int bookerId);
+    List<BookingDto> findAllCurrentByBooker(@Param("bookerId") int bookerId,
+                                            @Param("afterStart") LocalDateTime afterStart,
+                                            @Param("afterId") int afterId,
+                                            Pageable pageable);
 
     @Query("""
-            SELECT b FROM Booking b
-            JOIN FETCH b.booker
-            JOIN FETCH b.item
-            WHERE b.booker.id = :bookerId AND
-            b.end <= CURRENT_TIMESTAMP
-            ORDER BY b.start DESC
+            SELECT new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status, u.id, u.name, i.id, i.name)
+            FROM Booking b
+            JOIN b.booker u
+            JOIN b.item i
+            WHERE u.id = :bookerId AND
+            b.end <= CURRENT_TIMESTAMP AND
+            (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId))
+            ORDER BY b.start DESC, b.id DESC
             """)
-    Collection<Booking> findAllPastByBooker(@Param("bookerId") int bookerId);
+    List<BookingDto> findAllPastByBooker(@Param("bookerId") int bookerId,
+                                         @Param("afterStart") LocalDateTime afterStart,
+                                         @Param("afterId") int afterId,
+                                         Pageable pageable);
 
     @Query("""
-            SELECT b FROM Booking b
-            JOIN FETCH b.booker
-            JOIN FETCH b.item
-            WHERE b.booker.id = :bookerId AND
-            b.start >= CURRENT_TIMESTAMP
-            ORDER BY b.start DESC
+            SELECT new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status, u.id, u.name, i.id, i.name)
+            FROM Booking b
+            JOIN b.booker u
+            JOIN b.item i
+            WHERE u.id = :bookerId AND
+            b.start >= CURRENT_TIMESTAMP AND
+            (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId))
+            ORDER BY b.start DESC, b.id DESC
             """)
-    Collection<Booking> findAllFutureByBooker(@Param("bookerId") int bookerId);
+    List<BookingDto> findAllFutureByBooker(@Param("bookerId") int bookerId,
+                                           @Param("afterStart") LocalDateTime afterStart,
+                                           @Param("afterId") int afterId,
+                                           Pageable pageable);
 
 
     @Query("""
-            SELECT b FROM Booking b
-            JOIN FETCH b.booker
-            JOIN FETCH b.item
-            WHERE b.booker.id = :bookerId AND
-            b.status = 'WAITING'
-            ORDER BY b.start DESC
+            SELECT new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status, u.id, u.name, i.id, i.name)
+            FROM Booking b
+            JOIN b.booker u
+            JOIN b.item i
+            WHERE u.id = :bookerId AND
+            b.status = 'WAITING' AND
+            (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId))
+            ORDER BY b.start DESC, b.id DESC
             """)
-    Collection<Booking> findAllWaitingByBooker(@Param("bookerId") int bookerId);
+    List<BookingDto> findAllWaitingByBooker(@Param("bookerId") int bookerId,
+                                            @Param("afterStart") LocalDateTime afterStart,
+                                            @Param("afterId") int afterId,
+                                            Pageable pageable);
 
     @Query("""
-            SELECT b FROM Booking b
-            JOIN FETCH b.booker
-            JOIN FETCH b.item
-            WHERE b.booker.id = :bookerId AND
-            b.status = 'REJECTED'
-            ORDER BY b.start DESC
+            SELECT new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status, u.id, u.name, i.id, i.name)
+            FROM Booking b
+            JOIN b.booker u
+            JOIN b.item i
+            WHERE u.id = :bookerId AND
+            b.status = 'REJECTED' AND
+            (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId))
+            ORDER BY b.start DESC, b.id DESC
             """)
-    Collection<Booking> findAllRejectedByBooker(@Param("bookerId") int bookerId);
+    List<BookingDto> findAllRejectedByBooker(@Param("bookerId") int bookerId,
+                                             @Param("afterStart") LocalDateTime afterStart,
+                                             @Param("afterId") int afterId,
+                                             Pageable pageable);
 
     @Query("""
-            SELECT b FROM Booking b
-            JOIN FETCH b.booker
-            JOIN FETCH b.item i
-            WHERE i.owner.id = :ownerId
-            ORDER BY b.start DESC
+            SELECT new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status, u.id, u.name, i.id, i.name)
+            FROM Booking b
+            JOIN b.booker u
+            JOIN b.item i
+            WHERE i.owner.id = :ownerId AND
+            (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId))
+            ORDER BY b.start DESC, b.id DESC
             """)
-    Collection<Booking> findAllByItemOwner(@Param("ownerId") int ownerId);
+    List<BookingDto> findAllByItemOwner(@Param("ownerId") int ownerId,
+                                        @Param("afterStart") LocalDateTime afterStart,
+                                        @Param("afterId") int afterId,
+                                        Pageable pageable);
 
     @Query("""
-            SELECT b FROM Booking b
-            JOIN FETCH b.booker
-            JOIN FETCH b.item i
+            SELECT new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status, u.id, u.name, i.id, i.name)
+            FROM Booking b
+            JOIN b.booker u
+            JOIN b.item i
             WHERE i.owner.id = :ownerId AND
-            b.start <= CURRENT_TIMESTAMP AND b.end >= CURRENT_TIMESTAMP
-            ORDER BY b.start DESC
+            b.start <= CURRENT_TIMESTAMP AND b.end >= CURRENT_TIMESTAMP AND
+            (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId))
+            ORDER BY b.start DESC, b.id DESC
             """)
-    Collection<Booking> findAllCurrentByItemOwner(@Param("ownerId") int ownerId);
+    List<BookingDto> findAllCurrentByItemOwner(@Param("ownerId") int ownerId,
+                                               @Param("afterStart") LocalDateTime afterStart,
+                                               @Param("afterId") int afterId,
+                                               Pageable pageable);
 
     @Query("""
-            SELECT b FROM Booking b
-            JOIN FETCH b.booker
-            JOIN FETCH b.item i
+            SELECT new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status, u.id, u.name, i.id, i.name)
+            FROM Booking b
+            JOIN b.booker u
+            JOIN b.item i
             WHERE i.owner.id = :ownerId AND
-            b.end <= CURRENT_TIMESTAMP
-            ORDER BY b.start DESC
+            b.end <= CURRENT_TIMESTAMP AND
+            (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId))
+            ORDER BY b.start DESC, b.id DESC
             """)
-    Collection<Booking> findAllPastByItemOwner(@Param("ownerId") int itemOwner);
+    List<BookingDto> findAllPastByItemOwner(@Param("ownerId") int ownerId,
+                                            @Param("afterStart") LocalDateTime afterStart,
+                                            @Param("afterId") int afterId,
+                                            Pageable pageable);
 
     @Query("""
-            SELECT b FROM Booking b
-            JOIN FETCH b.booker
-            JOIN FETCH b.item i
+            SELECT new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status, u.id, u.name, i.id, i.name)
+            FROM Booking b
+            JOIN b.booker u
+            JOIN b.item i
             WHERE i.owner.id = :ownerId AND
-            b.start >= CURRENT_TIMESTAMP
-            ORDER BY b.start DESC
+            b.start >= CURRENT_TIMESTAMP AND
+            (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId))
+            ORDER BY b.start DESC, b.id DESC
             """)
-    Collection<Booking> findAllFutureByItemOwner(@Param("ownerId") int itemOwner);
+    List<BookingDto> findAllFutureByItemOwner(@Param("ownerId") int ownerId,
+                                              @Param("afterStart") LocalDateTime afterStart,
+                                              @Param("afterId") int afterId,
+                                              Pageable pageable);
 
     @Query("""
-            SELECT b FROM Booking b
-            JOIN FETCH b.booker
-            JOIN FETCH b.item i
+            SELECT new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status, u.id, u.name, i.id, i.name)
+            FROM Booking b
+            JOIN b.booker u
+            JOIN b.item i
             WHERE i.owner.id = :ownerId AND
-            b.status = 'WAITING'
-            ORDER BY b.start DESC
+            b.status = 'WAITING' AND
+            (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId))
+            ORDER BY b.start DESC, b.id DESC
             """)
-    Collection<Booking> findAllWaitingByItemOwner(@Param("ownerId") int itemOwner);
+    List<BookingDto> findAllWaitingByItemOwner(@Param("ownerId") int ownerId,
+                                               @Param("afterStart") LocalDateTime afterStart,
+                                               @Param("afterId") int afterId,
+                                               Pageable pageable);
 
     @Query("""
-            SELECT b FROM Booking b
-            JOIN FETCH b.booker
-            JOIN FETCH b.item i
+            SELECT new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status, u.id, u.name, i.id, i.name)
+            FROM Booking b
+            JOIN b.booker u
+            JOIN b.item i
             WHERE i.owner.id = :ownerId AND
-            b.status = 'REJECTED'
+            b.status = 'REJECTED' AND
+            (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId))
+            ORDER BY b.start DESC, b.id DESC
+            """)
+    List<BookingDto> findAllRejectedByItemOwner(@Param("ownerId") int ownerId,
+                                                @Param("afterStart") LocalDateTime afterStart,
+                                                @Param("afterId") int afterId,
+                                                Pageable pageable);
+
+    /**
+     * Счетчики для всех состояний за один проход по бронированиям арендатора, условия те же, что в списках выше.
+     */
+    @Query("""
+            SELECT new ru.practicum.shareit.booking.dto.BookingSummaryDto(
+                COUNT(b),
+                SUM(CASE WHEN b.start <= CURRENT_TIMESTAMP AND b.end >= CURRENT_TIMESTAMP THEN 1 ELSE 0 END),
+                SUM(CASE WHEN b.end <= CURRENT_TIMESTAMP THEN 1 ELSE 0 END),
+                SUM(CASE WHEN b.start >= CURRENT_TIMESTAMP THEN 1 ELSE 0 END),
+                SUM(CASE WHEN b.status = 'WAITING' THEN 1 ELSE 0 END),
+                SUM(CASE WHEN b.status = 'REJECTED' THEN 1 ELSE 0 END))
+            FROM Booking b
+            WHERE b.booker.id = :bookerId
+            """)
+    BookingSummaryDto summarizeByBooker(@Param("bookerId") int bookerId);
+
+    @Query("""
+            SELECT new ru.practicum.shareit.booking.dto.BookingSummaryDto(
+                COUNT(b),
+                SUM(CASE WHEN b.start <= CURRENT_TIMESTAMP AND b.end >= CURRENT_TIMESTAMP THEN 1 ELSE 0 END),
+                SUM(CASE WHEN b.end <= CURRENT_TIMESTAMP THEN 1 ELSE 0 END),
+                SUM(CASE WHEN b.start >= CURRENT_TIMESTAMP THEN 1 ELSE 0 END),
+                SUM(CASE WHEN b.status = 'WAITING' THEN 1 ELSE 0 END),
+                SUM(CASE WHEN b.status = 'REJECTED' THEN 1 ELSE 0 END))
+            FROM Booking b
+            JOIN b.item i
+            WHERE i.owner.id = :ownerId
+            """)
+    BookingSummaryDto summarizeByItemOwner(@Param("ownerId") int ownerId);
+
+    /**
+     * Одобренные бронирования одной вещи не пересекаются, поэтому пересечься с интервалом
+     * [start, end) может только одобренное бронирование с наибольшим началом раньше end.
+     */
+    @Query("""
+            SELECT b FROM Booking b
+            WHERE b.item.id = :itemId AND
+            b.status = 'APPROVED' AND
+            b.start < :end
             ORDER BY b.start DESC
+            LIMIT 1
             """)
-    Collection<Booking> findAllRejectedByItemOwner(@Param("ownerId") int itemOwner);
+    Optional<Booking> findLastApprovedStartingBefore(@Param("itemId") int itemId, @Param("end") LocalDateTime end);
+
+    /**
+     * Вся история бронирований вещей владельца для потоковой выгрузки. Результат читается
+     * однонаправленным курсором порциями по 500 строк и сразу в DTO, так что контекст
+     * персистентности не растет; вызывать внутри транзакции и закрывать поток.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status, u.id, u.name, i.id, i.name)
+            FROM Booking b
+            JOIN b.booker u
+            JOIN b.item i
+            WHERE i.owner.id = :ownerId
+            ORDER BY b.start DESC, b.id DESC
+            """)
+    Stream<BookingDto> streamAllByItemOwner(@Param("ownerId") int ownerId);
+
+    /**
+     * Одобренные и ожидающие решения бронирования вещи, которые еще не закончились, по возрастанию начала.
+     */
+    @Query("""
+            SELECT new ru.practicum.shareit.item.dto.AvailabilityIntervalDto(b.start, b.end)
+            FROM Booking b
+            WHERE b.item.id = :itemId AND
+            b.status IN ('APPROVED', 'WAITING') AND
+            b.end > :from
+            ORDER BY b.start
+            """)
+    List<AvailabilityIntervalDto> findActiveIntervals(@Param("itemId") int itemId, @Param("from") LocalDateTime from);
 
     @Query("""
             SELECT b FROM Booking b
-            WHERE b.id = (
-                SELECT b2.id FROM Booking b2
-                WHERE b2.item.id = b.item.id
-                AND b2.end < :now
-                AND b2.status = 'APPROVED'
-                ORDER BY b2.end DESC
-                LIMIT 1
-            )
-            AND b.item.id IN :itemIds
+            WHERE b.item.id = :itemId AND
+            b.status = 'APPROVED' AND
+            b.start < :to AND
+            b.end > :from
             """)
-    Collection<Booking> findLasBookings(@Param("itemIds") List<Integer> itemIds, @Param("now") LocalDateTime now);
+    List<Booking> findApprovedOverlapping(@Param("itemId") int itemId,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item WHERE b.id IN :bookingIds")
+    List<Booking> findAllWithItemByIdIn(@Param("bookingIds") Collection<Integer> bookingIds);
 
+    @Query("SELECT b.id FROM Booking b WHERE b.id IN :bookingIds AND b.status = :status")
+    List<Integer> findIdsWithStatus(@Param("bookingIds") Collection<Integer> bookingIds,
+                                    @Param("status") BookingStatus status);
+
+    /**
+     * Меняет статус только тем бронированиям, которые все еще ждут решения.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE Booking b SET b.status = :status, b.version = b.version + 1
+            WHERE b.id IN :bookingIds AND b.status = 'WAITING'
+            """)
+    int updateWaitingStatus(@Param("bookingIds") Collection<Integer> bookingIds,
+                            @Param("status") BookingStatus status);
+
+    /**
+     * Кандидаты в архив: одобренные бронирования, закончившиеся раньше cutoff, порцией размера страницы.
+     * Строки блокируются с SKIP LOCKED (таймаут блокировки -2), поэтому архиваторы нескольких
+     * экземпляров приложения разбирают разные порции, а не ждут друг друга.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
     @Query("""
             SELECT b FROM Booking b
-            WHERE b.id = (
-                SELECT b2.id FROM Booking b2
-                WHERE b2.item.id = b.item.id
-                AND b2.start > :now
-                AND b2.status = 'APPROVED'
-                ORDER BY b2.start ASC
-                LIMIT 1
-            )
-            AND b.item.id IN :itemIds
+            WHERE b.status = 'APPROVED' AND
+            b.end < :cutoff
+            ORDER BY b.end
             """)
-    Collection<Booking> findNextBookings(@Param("itemIds") List<Integer> itemIds, @Param("now") LocalDateTime now);
+    List<Booking> lockApprovedEndedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Booking b WHERE b.id IN :bookingIds")
+    int deleteAllByIdIn(@Param("bookingIds") Collection<Integer> bookingIds);
 
     @Query("""
             SELECT COUNT(b) > 0 FROM Booking b
@@ -167,4 +336,10 @@ public interface BookingRepository extends JpaRepository<Booking, Integer> {
             """)
     boolean existByBookerIdAndItemId(@Param("bookerId") int bookerId, @Param("itemId") int itemId);
 
+    @Query("SELECT COALESCE(MAX(b.id), 0) FROM Booking b")
+    int findMaxId();
+
+    @Query(value = "SELECT nextval('booking_seq')", nativeQuery = true)
+    long nextSequenceValue();
+
 }
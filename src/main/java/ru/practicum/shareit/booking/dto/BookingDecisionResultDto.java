@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Итог массового одобрения или отклонения: измененные бронирования и причины отказа по остальным.
+ */
+@Data
+@AllArgsConstructor
+public class BookingDecisionResultDto {
+    private List<Integer> changed;
+    private Map<Integer, String> refused;
+}
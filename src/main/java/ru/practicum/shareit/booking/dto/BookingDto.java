@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import ru.practicum.shareit.booking.enums.BookingStatus;
@@ -13,6 +14,7 @@ import java.time.LocalDateTime;
  */
 @Data
 @Builder
+@AllArgsConstructor
 public class BookingDto {
     private Integer id;
     private LocalDateTime start;
@@ -20,4 +22,12 @@ public class BookingDto {
     private UserShortDto booker;
     private ItemShortDto item;
     private BookingStatus status;
+
+    /**
+     * Конструктор для JPQL-проекции: списки бронирований читаются сразу в DTO, без сущностей.
+     */
+    public BookingDto(Integer id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                      Integer bookerId, String bookerName, Integer itemId, String itemName) {
+        this(id, start, end, new UserShortDto(bookerId, bookerName), new ItemShortDto(itemId, itemName), status);
+    }
 }
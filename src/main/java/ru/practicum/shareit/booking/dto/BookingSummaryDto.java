@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Data;
+
+/**
+ * Число бронирований в каждом из состояний BookingState.
+ */
+@Data
+public class BookingSummaryDto {
+    private long all;
+    private long current;
+    private long past;
+    private long future;
+    private long waiting;
+    private long rejected;
+
+    /**
+     * Конструктор для JPQL-проекции: без строк SUM возвращает null.
+     */
+    public BookingSummaryDto(Long all, Long current, Long past, Long future, Long waiting, Long rejected) {
+        this.all = orZero(all);
+        this.current = orZero(current);
+        this.past = orZero(past);
+        this.future = orZero(future);
+        this.waiting = orZero(waiting);
+        this.rejected = orZero(rejected);
+    }
+
+    public BookingSummaryDto withArchived(long archived) {
+        return new BookingSummaryDto(all + archived, current, past + archived, future, waiting, rejected);
+    }
+
+    private static long orZero(Long value) {
+        return value == null ? 0 : value;
+    }
+}
@@ -0,0 +1,179 @@
+package ru.practicum.shareit.booking.event;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Рассылает изменения статусов бронирований по SSE подписчикам, сгруппированным по пользователю.
+ * Событие только кладется в ограниченный буфер подписчика, а отправкой занимаются потоки
+ * рассыльщика, поэтому медленный клиент не задерживает транзакцию. При переполнении
+ * буфера старые события отбрасываются, а клиент получает событие overflow и должен
+ * перечитать бронирования. Раз в heartbeat-интервал каждому подписчику уходит комментарий,
+ * по ошибке отправки которого отвалившиеся соединения удаляются. Сверх
+ * shareit.sse.max-subscriptions-per-user подписок пользователь получает 429.
+ */
+@Component
+@Slf4j
+public class BookingEventBroadcaster {
+    static final String STATUS_EVENT = "booking-status";
+    static final String OVERFLOW_EVENT = "overflow";
+
+    private final Map<Integer, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor;
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final int maxSubscriptionsPerUser;
+    private final long retryAfterSeconds;
+
+    public BookingEventBroadcaster(@Value("${shareit.sse.timeout:30m}") Duration timeout,
+                                   @Value("${shareit.sse.heartbeat:15s}") Duration heartbeat,
+                                   @Value("${shareit.sse.buffer-size:100}") int bufferSize,
+                                   @Value("${shareit.sse.max-subscriptions-per-user:5}") int maxSubscriptionsPerUser,
+                                   @Value("${shareit.sse.threads:2}") int threads) {
+        this.timeoutMillis = timeout.toMillis();
+        this.bufferSize = bufferSize;
+        this.maxSubscriptionsPerUser = maxSubscriptionsPerUser;
+        // оборванные соединения освобождают место не позже следующего heartbeat
+        this.retryAfterSeconds = Math.max(1, heartbeat.toSeconds());
+        this.executor = Executors.newScheduledThreadPool(threads);
+        executor.scheduleAtFixedRate(this::sendHeartbeats, heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe(int userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        // проверка лимита и добавление идут под одной блокировкой ключа, чтобы параллельные
+        // подписки не превысили лимит; исключение бросается до того, как эмиттер отдан в MVC
+        subscribers.compute(userId, (id, userSubscribers) -> {
+            Set<Subscriber> current = userSubscribers == null ? new CopyOnWriteArraySet<>() : userSubscribers;
+            if (current.size() >= maxSubscriptionsPerUser) {
+                throw new TooManyRequestsException(String.format("у пользователя %d уже %d подписок", userId,
+                        maxSubscriptionsPerUser), retryAfterSeconds);
+            }
+            current.add(subscriber);
+            return current;
+        });
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        log.debug("пользователь {} подписался на статусы бронирований", userId);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChange(BookingStatusEvent event) {
+        publish(event.getBookerId(), event);
+        if (event.getOwnerId() != event.getBookerId()) {
+            publish(event.getOwnerId(), event);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+    }
+
+    private void publish(int userId, BookingStatusEvent event) {
+        for (Subscriber subscriber : subscribers.getOrDefault(userId, Set.of())) {
+            subscriber.offer(event);
+            if (subscriber.scheduled.compareAndSet(false, true)) {
+                executor.execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            List<BookingStatusEvent> events;
+            boolean overflowed;
+            do {
+                synchronized (subscriber.buffer) {
+                    events = List.copyOf(subscriber.buffer);
+                    subscriber.buffer.clear();
+                    overflowed = subscriber.overflowed;
+                    subscriber.overflowed = false;
+                }
+                if (overflowed) {
+                    subscriber.emitter.send(SseEmitter.event().name(OVERFLOW_EVENT).data(""));
+                }
+                for (BookingStatusEvent event : events) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .name(STATUS_EVENT)
+                            .id(String.valueOf(event.getBookingId()))
+                            .data(event));
+                }
+                subscriber.scheduled.set(false);
+            } while (!subscriber.isEmpty() && subscriber.scheduled.compareAndSet(false, true));
+        } catch (IOException | IllegalStateException exception) {
+            log.debug("подписчик {} отключился: {}", subscriber.userId, exception.getMessage());
+            remove(subscriber);
+        }
+    }
+
+    private void sendHeartbeats() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> {
+            try {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException exception) {
+                remove(subscriber);
+            }
+        }));
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    private final class Subscriber {
+        private final int userId;
+        private final SseEmitter emitter;
+        private final Deque<BookingStatusEvent> buffer = new ArrayDeque<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private boolean overflowed;
+
+        private Subscriber(int userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void offer(BookingStatusEvent event) {
+            synchronized (buffer) {
+                if (buffer.size() == bufferSize) {
+                    buffer.pollFirst();
+                    overflowed = true;
+                }
+                buffer.addLast(event);
+            }
+        }
+
+        private boolean isEmpty() {
+            synchronized (buffer) {
+                return buffer.isEmpty() && !overflowed;
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+
+/**
+ * Бронирование получило новый статус. Уходит подписчикам-арендатору и владельцу вещи
+ * после фиксации транзакции.
+ */
+@Data
+@AllArgsConstructor
+public class BookingStatusEvent {
+    private int bookingId;
+    private int itemId;
+    @JsonIgnore
+    private int bookerId;
+    @JsonIgnore
+    private int ownerId;
+    private BookingStatus status;
+}
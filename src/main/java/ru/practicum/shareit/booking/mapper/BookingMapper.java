@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.mapper;
 
+import ru.practicum.shareit.booking.ArchivedBooking;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
@@ -34,6 +35,17 @@ public class BookingMapper {
                 .build();
     }
 
+    public static BookingDto toDto(ArchivedBooking booking) {
+        return BookingDto.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .status(booking.getStatus())
+                .booker(UserMapper.toShortDto(booking.getBooker()))
+                .item(ItemMapper.toShortDto(booking.getItem()))
+                .build();
+    }
+
     public static Collection<BookingDto> toDto(Collection<Booking> bookings) {
         return bookings.stream().map(BookingMapper::toDto).toList();
     }
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dao.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Переносит одобренные бронирования, закончившиеся раньше shareit.archive.after назад,
+ * из booking в booking_archive. Каждая порция копируется и удаляется в своей короткой
+ * транзакции, так что блокировки строк горячей таблицы держатся недолго, а между
+ * порциями другие запросы успевают пройти. Строки порции блокируются с SKIP LOCKED,
+ * поэтому несколько экземпляров приложения могут архивировать одновременно.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.archive.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class BookingArchiver {
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration after;
+    private final Pageable chunk;
+    private final long pauseMillis;
+
+    public BookingArchiver(BookingRepository bookingRepository,
+                           ArchivedBookingRepository archivedBookingRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${shareit.archive.after:90d}") Duration after,
+                           @Value("${shareit.archive.chunk-size:500}") int chunkSize,
+                           @Value("${shareit.archive.pause:100ms}") Duration pause) {
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.after = after;
+        this.chunk = PageRequest.of(0, chunkSize);
+        this.pauseMillis = pause.toMillis();
+    }
+
+    @Scheduled(initialDelayString = "${shareit.archive.initial-delay:PT5M}", fixedDelayString = "${shareit.archive.interval:PT1H}")
+    public void archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(after);
+        int total = 0;
+        int moved;
+        do {
+            moved = archiveChunk(cutoff);
+            total += moved;
+            if (moved > 0 && !pause()) {
+                break;
+            }
+        } while (moved == chunk.getPageSize());
+        if (total > 0) {
+            log.info("в архив перенесено {} бронирований, закончившихся до {}", total, cutoff);
+        }
+    }
+
+    int archiveChunk(LocalDateTime cutoff) {
+        Integer moved = transactionTemplate.execute(status -> {
+            List<Integer> ids = bookingRepository.lockApprovedEndedBefore(cutoff, chunk)
+                    .stream()
+                    .map(Booking::getId)
+                    .toList();
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            archivedBookingRepository.copyFromBookings(ids, LocalDateTime.now());
+            return bookingRepository.deleteAllByIdIn(ids);
+        });
+        return moved == null ? 0 : moved;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
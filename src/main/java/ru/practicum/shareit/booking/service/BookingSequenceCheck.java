@@ -0,0 +1,39 @@
+package ru.practicum.shareit.booking.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dao.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+
+/**
+ * Проверяет при запуске, что booking_seq ушла дальше уже выданных id. В базе, где бронирования
+ * создавались до появления последовательности, она начинается с 1, и первая же вставка
+ * упадет на первичном ключе, поэтому приложение не стартует, пока последовательность не сдвинута.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class BookingSequenceCheck {
+    /**
+     * Шаг последовательности и allocationSize у {@link ru.practicum.shareit.booking.Booking}:
+     * значение n дает Hibernate id не больше n.
+     */
+    private static final int INCREMENT = 100;
+
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+
+    @PostConstruct
+    void check() {
+        int maxId = Math.max(bookingRepository.findMaxId(), archivedBookingRepository.findMaxId());
+        long next = bookingRepository.nextSequenceValue();
+        if (maxId > 0 && next - INCREMENT < maxId) {
+            throw new IllegalStateException(String.format(
+                    "booking_seq отстает от id бронирований: следующее значение %d, наибольший id %d. "
+                            + "Сдвиньте последовательность: SELECT setval('booking_seq', %d)", next, maxId, maxId + INCREMENT));
+        }
+        log.debug("booking_seq: следующее значение {}, наибольший id бронирования {}", next, maxId);
+    }
+}
@@ -1,18 +1,37 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 
-import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDto createBooking(BookingCreateDto newBooking, int userId);
 
+    List<BookingBatchResultDto> createBookings(List<BookingCreateDto> newBookings, int userId);
+
     BookingDto approveBooking(int bookingId, int userId, boolean approved);
 
+    BookingDecisionResultDto decideBookings(List<Integer> bookingIds, int userId, boolean approved);
+
+    String getETag(int bookingId, int userId);
+
     BookingDto findById(int bookingId, int userId);
 
-    Collection<BookingDto> findAllByBookerAndState(int userId, String state);
+    BookingPageDto findAllByBookerAndState(int userId, String state, String after, Integer size);
+
+    BookingPageDto findAllByItemOwnerAndState(int ownerId, String state, String after, Integer size);
+
+    BookingSummaryDto getSummaryByBooker(int bookerId);
+
+    BookingSummaryDto getSummaryByItemOwner(int ownerId);
+
+    void checkItemOwner(int ownerId);
 
-    Collection<BookingDto> findAllByItemOwnerAndState(int ownerId, String state);
+    void exportAllByItemOwner(int ownerId, Consumer<BookingDto> consumer);
 }
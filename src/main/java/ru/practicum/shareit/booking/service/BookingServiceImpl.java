@@ -1,14 +1,28 @@
 package ru.practicum.shareit.booking.service;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.ArchivedBooking;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dao.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.event.BookingStatusEvent;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.InaccessibleItemException;
 import ru.practicum.shareit.exception.NoAccessException;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -17,8 +31,28 @@ import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.util.Cursor;
+import ru.practicum.shareit.util.Pages;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.lang.String.format;
 import static ru.practicum.shareit.booking.mapper.BookingMapper.toDto;
@@ -28,91 +62,361 @@ import static ru.practicum.shareit.booking.mapper.BookingMapper.toEntity;
 @Slf4j
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final int MAX_BATCH_SIZE = 5000;
+    private static final Comparator<BookingDto> NEWEST_FIRST = Comparator.comparing(BookingDto::getStart)
+            .thenComparing(BookingDto::getId)
+            .reversed();
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional
     public BookingDto createBooking(BookingCreateDto newBooking, int userId) {
-        Item item = getItemById(newBooking.getItemId());
+        Item item = lockItemById(newBooking.getItemId());
         User user = getUserById(userId);
         if (!item.getAvailable()) {
             throw new InaccessibleItemException("предмет с id " + item.getId() + " уже занят");
         }
-        if (newBooking.getStart().isAfter(newBooking.getEnd())) {
-            throw new IllegalArgumentException("начало бронирования не должно быть позже конца");
+        if (!newBooking.getStart().isBefore(newBooking.getEnd())) {
+            throw new IllegalArgumentException("начало бронирования должно быть раньше конца");
         }
-        Booking booking = toEntity(newBooking, user, item);
-        return toDto(bookingRepository.save(booking));
+        checkNoApprovedOverlap(item.getId(), newBooking.getStart(), newBooking.getEnd());
+        Booking booking = bookingRepository.save(toEntity(newBooking, user, item));
+        publishStatus(booking);
+        return toDto(booking);
+    }
+
+    /**
+     * Каждая запись проверяется так же, как в {@link #createBooking}, но вещи блокируются и
+     * одобренные бронирования читаются одним запросом на весь пакет, а вставки идут пачками.
+     */
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> createBookings(List<BookingCreateDto> newBookings, int userId) {
+        if (newBookings.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(format("в пакете может быть не больше %d бронирований, передано %d",
+                    MAX_BATCH_SIZE, newBookings.size()));
+        }
+        User user = getUserById(userId);
+        String[] errors = new String[newBookings.size()];
+        List<BookingCreateDto> valid = new ArrayList<>();
+        for (int i = 0; i < newBookings.size(); i++) {
+            BookingCreateDto newBooking = newBookings.get(i);
+            errors[i] = validate(newBooking);
+            if (errors[i] == null) {
+                valid.add(newBooking);
+            }
+        }
+        Booking[] bookings = new Booking[newBookings.size()];
+        if (!valid.isEmpty()) {
+            Set<Integer> itemIds = valid.stream().map(BookingCreateDto::getItemId).collect(Collectors.toSet());
+            Map<Integer, Item> items = itemRepository.findAllByIdForUpdate(itemIds)
+                    .stream()
+                    .collect(Collectors.toMap(Item::getId, Function.identity()));
+            Map<Integer, List<Booking>> approvedByItem = findApprovedInItemWindows(valid,
+                    BookingCreateDto::getItemId, BookingCreateDto::getStart, BookingCreateDto::getEnd);
+            for (int i = 0; i < newBookings.size(); i++) {
+                if (errors[i] == null) {
+                    BookingCreateDto newBooking = newBookings.get(i);
+                    Item item = items.get(newBooking.getItemId());
+                    errors[i] = checkAdmission(newBooking, item, approvedByItem.getOrDefault(newBooking.getItemId(), List.of()));
+                    if (errors[i] == null) {
+                        bookings[i] = toEntity(newBooking, user, item);
+                    }
+                }
+            }
+            bookingRepository.saveAll(Arrays.stream(bookings).filter(Objects::nonNull).toList())
+                    .forEach(this::publishStatus);
+        }
+        List<BookingBatchResultDto> results = new ArrayList<>(newBookings.size());
+        for (int i = 0; i < newBookings.size(); i++) {
+            results.add(new BookingBatchResultDto(i, bookings[i] == null ? null : toDto(bookings[i]), errors[i]));
+        }
+        log.debug("пакет бронирований пользователя {}: {} из {} создано", userId,
+                Arrays.stream(bookings).filter(Objects::nonNull).count(), newBookings.size());
+        return results;
     }
 
     @Override
+    @Transactional
     public BookingDto approveBooking(int bookingId, int userId, boolean approved) {
         Booking booking = getBookingById(bookingId);
         if (booking.getItem().getOwner().getId() != userId) {
             throw new NoAccessException(format("пользователь %d не является владельцем вещи %d", userId, bookingId));
         }
         if (approved) {
+            if (booking.getStatus() != BookingStatus.APPROVED) {
+                lockItemById(booking.getItem().getId());
+                checkNoApprovedOverlap(booking.getItem().getId(), booking.getStart(), booking.getEnd());
+            }
             booking.setStatus(BookingStatus.APPROVED);
         } else {
             booking.setStatus(BookingStatus.REJECTED);
         }
-        return toDto(bookingRepository.save(booking));
+        Booking savedBooking = bookingRepository.save(booking);
+        publishStatus(savedBooking);
+        return toDto(savedBooking);
+    }
+
+    /**
+     * Проверяет владельца и статус WAITING, при одобрении отсеивает пересечения с уже одобренными
+     * и друг с другом, после чего меняет статус всем принятым бронированиям одним UPDATE.
+     */
+    @Override
+    @Transactional
+    public BookingDecisionResultDto decideBookings(List<Integer> bookingIds, int userId, boolean approved) {
+        if (bookingIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(format("в пакете может быть не больше %d бронирований, передано %d",
+                    MAX_BATCH_SIZE, bookingIds.size()));
+        }
+        Set<Integer> ids = new LinkedHashSet<>(bookingIds);
+        Map<Integer, String> refused = new LinkedHashMap<>();
+        Map<Integer, Booking> found = ids.isEmpty() ? Map.of() : bookingRepository.findAllWithItemByIdIn(ids)
+                .stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        List<Booking> candidates = new ArrayList<>();
+        for (Integer id : ids) {
+            Booking booking = found.get(id);
+            if (booking == null) {
+                refused.put(id, "бронирование с id " + id + " не найдено");
+            } else if (booking.getItem().getOwner().getId() != userId) {
+                refused.put(id, format("пользователь %d не является владельцем вещи %d", userId, booking.getItem().getId()));
+            } else if (booking.getStatus() != BookingStatus.WAITING) {
+                refused.put(id, "бронирование уже в статусе " + booking.getStatus());
+            } else {
+                candidates.add(booking);
+            }
+        }
+        if (approved && !candidates.isEmpty()) {
+            candidates = admitNonOverlapping(candidates, refused);
+        }
+        Map<Integer, Booking> acceptedById = candidates.stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        List<Integer> accepted = candidates.stream().map(Booking::getId).toList();
+        if (accepted.isEmpty()) {
+            return new BookingDecisionResultDto(List.of(), refused);
+        }
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        int updated = bookingRepository.updateWaitingStatus(accepted, status);
+        List<Integer> changed = accepted;
+        if (updated != accepted.size()) {
+            // часть бронирований успели изменить параллельно, выясняем какие именно
+            Set<Integer> withStatus = new HashSet<>(bookingRepository.findIdsWithStatus(accepted, status));
+            changed = accepted.stream().filter(withStatus::contains).toList();
+            accepted.stream()
+                    .filter(id -> !withStatus.contains(id))
+                    .forEach(id -> refused.put(id, "статус бронирования изменился параллельно"));
+        }
+        changed.forEach(id -> {
+            Booking booking = acceptedById.get(id);
+            eventPublisher.publishEvent(new BookingStatusEvent(id, booking.getItem().getId(),
+                    booking.getBooker().getId(), userId, status));
+        });
+        log.debug("пользователь {} изменил статус на {} у бронирований {}", userId, status, changed);
+        return new BookingDecisionResultDto(changed, refused);
+    }
+
+    /**
+     * Ответ зависит от бронирования, вещи и имени арендатора: вещь и пользователь обычно
+     * приходят из кеша второго уровня, так что для 304 обычно нужен один запрос к базе.
+     */
+    @Override
+    public String getETag(int bookingId, int userId) {
+        // неизвестный пользователь получает 404, как и в findById, а не 403 из проверки доступа
+        getUserById(userId);
+        Optional<Booking> found = bookingRepository.findById(bookingId);
+        if (found.isEmpty()) {
+            ArchivedBooking archived = getArchivedBookingById(bookingId);
+            checkAccess(archived.getBooker(), archived.getItem(), userId, bookingId);
+            return bookingId + "-" + archived.getVersion() + "-" + archived.getItem().getVersion() + "-"
+                    + Integer.toHexString(archived.getBooker().getName().hashCode());
+        }
+        Booking booking = found.get();
+        checkAccess(booking.getBooker(), booking.getItem(), userId, bookingId);
+        return bookingId + "-" + booking.getVersion() + "-" + booking.getItem().getVersion() + "-"
+                + Integer.toHexString(booking.getBooker().getName().hashCode());
     }
 
     @Override
     public BookingDto findById(int bookingId, int userId) {
-        Booking booking = getBookingById(bookingId);
-        User user = getUserById(userId);
-        if (!(booking.getBooker().equals(user) || booking.getItem().getOwner().equals(user))) {
-            throw new NoAccessException("у пользователя " + userId + " нет доступа к бронированию " + bookingId);
+        getUserById(userId);
+        Optional<Booking> found = bookingRepository.findById(bookingId);
+        if (found.isEmpty()) {
+            ArchivedBooking archived = getArchivedBookingById(bookingId);
+            checkAccess(archived.getBooker(), archived.getItem(), userId, bookingId);
+            return toDto(archived);
         }
+        Booking booking = found.get();
+        checkAccess(booking.getBooker(), booking.getItem(), userId, bookingId);
         return toDto(booking);
     }
 
     @Override
-    public Collection<BookingDto> findAllByBookerAndState(int bookerId, String state) {
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public BookingPageDto findAllByBookerAndState(int bookerId, String state, String after, Integer size) {
         getUserById(bookerId);
         final BookingState bookingState = getBookingStateFromString(state);
-        Collection<Booking> bookings;
+        final Cursor cursor = Cursor.decode(after);
+        final int pageSize = Pages.checkSize(size);
+        final Pageable page = Pages.withNext(pageSize);
+        List<BookingDto> bookings;
         switch (bookingState) {
-            case ALL -> bookings = bookingRepository.findAllByBookerId(bookerId);
-            case CURRENT -> bookings = bookingRepository.findAllCurrentByBooker(bookerId);
-            case PAST -> bookings = bookingRepository.findAllPastByBooker(bookerId);
-            case FUTURE -> bookings = bookingRepository.findAllFutureByBooker(bookerId);
-            case WAITING -> bookings = bookingRepository.findAllWaitingByBooker(bookerId);
-            case REJECTED -> bookings = bookingRepository.findAllRejectedByBooker(bookerId);
+            case ALL -> bookings = mergeWithArchive(
+                    bookingRepository.findAllByBookerId(bookerId, cursor.getTime(), cursor.getId(), page),
+                    archivedBookingRepository.findAllByBookerId(bookerId, cursor.getTime(), cursor.getId(), page));
+            case CURRENT -> bookings = bookingRepository.findAllCurrentByBooker(bookerId, cursor.getTime(), cursor.getId(), page);
+            case PAST -> bookings = mergeWithArchive(
+                    bookingRepository.findAllPastByBooker(bookerId, cursor.getTime(), cursor.getId(), page),
+                    archivedBookingRepository.findAllByBookerId(bookerId, cursor.getTime(), cursor.getId(), page));
+            case FUTURE -> bookings = bookingRepository.findAllFutureByBooker(bookerId, cursor.getTime(), cursor.getId(), page);
+            case WAITING -> bookings = bookingRepository.findAllWaitingByBooker(bookerId, cursor.getTime(), cursor.getId(), page);
+            case REJECTED -> bookings = bookingRepository.findAllRejectedByBooker(bookerId, cursor.getTime(), cursor.getId(), page);
             default -> throw new IllegalArgumentException("неизвестное состояние: " + bookingState);
         }
-        return toDto(bookings);
+        return toPageDto(bookings, pageSize);
     }
 
     @Override
-    public Collection<BookingDto> findAllByItemOwnerAndState(int ownerId, String state) {
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public BookingPageDto findAllByItemOwnerAndState(int ownerId, String state, String after, Integer size) {
         getUserById(ownerId);
         final BookingState bookingState = getBookingStateFromString(state);
         if (!itemRepository.existByOwnerId(ownerId)) {
             throw new OwnerHasNoItemsException("У пользователя " + ownerId + " нет предметов для бронирования");
         }
-        Collection<Booking> bookings;
+        final Cursor cursor = Cursor.decode(after);
+        final int pageSize = Pages.checkSize(size);
+        final Pageable page = Pages.withNext(pageSize);
+        List<BookingDto> bookings;
         switch (bookingState) {
-            case ALL -> bookings = bookingRepository.findAllByItemOwner(ownerId);
-            case CURRENT -> bookings = bookingRepository.findAllCurrentByItemOwner(ownerId);
-            case PAST -> bookings = bookingRepository.findAllPastByItemOwner(ownerId);
-            case FUTURE -> bookings = bookingRepository.findAllFutureByItemOwner(ownerId);
-            case WAITING -> bookings = bookingRepository.findAllWaitingByItemOwner(ownerId);
-            case REJECTED -> bookings = bookingRepository.findAllRejectedByItemOwner(ownerId);
+            case ALL -> bookings = mergeWithArchive(
+                    bookingRepository.findAllByItemOwner(ownerId, cursor.getTime(), cursor.getId(), page),
+                    archivedBookingRepository.findAllByItemOwner(ownerId, cursor.getTime(), cursor.getId(), page));
+            case CURRENT -> bookings = bookingRepository.findAllCurrentByItemOwner(ownerId, cursor.getTime(), cursor.getId(), page);
+            case PAST -> bookings = mergeWithArchive(
+                    bookingRepository.findAllPastByItemOwner(ownerId, cursor.getTime(), cursor.getId(), page),
+                    archivedBookingRepository.findAllByItemOwner(ownerId, cursor.getTime(), cursor.getId(), page));
+            case FUTURE -> bookings = bookingRepository.findAllFutureByItemOwner(ownerId, cursor.getTime(), cursor.getId(), page);
+            case WAITING -> bookings = bookingRepository.findAllWaitingByItemOwner(ownerId, cursor.getTime(), cursor.getId(), page);
+            case REJECTED -> bookings = bookingRepository.findAllRejectedByItemOwner(ownerId, cursor.getTime(), cursor.getId(), page);
             default -> throw new IllegalArgumentException("неизвестное состояние: " + bookingState);
         }
-        return toDto(bookings);
+        return toPageDto(bookings, pageSize);
+    }
+
+    /**
+     * Все счетчики горячей таблицы считаются одним запросом с условной агрегацией, архивные
+     * бронирования завершены и одобрены, поэтому добавляются только к ALL и PAST. Оба запроса
+     * читают один снимок, чтобы порция, перенесенная архиватором между ними, не посчиталась дважды.
+     */
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public BookingSummaryDto getSummaryByBooker(int bookerId) {
+        getUserById(bookerId);
+        return bookingRepository.summarizeByBooker(bookerId)
+                .withArchived(archivedBookingRepository.countByBookerId(bookerId));
+    }
+
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public BookingSummaryDto getSummaryByItemOwner(int ownerId) {
+        getUserById(ownerId);
+        return bookingRepository.summarizeByItemOwner(ownerId)
+                .withArchived(archivedBookingRepository.countByItemOwner(ownerId));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void checkItemOwner(int ownerId) {
+        getUserById(ownerId);
+        if (!itemRepository.existByOwnerId(ownerId)) {
+            throw new OwnerHasNoItemsException("У пользователя " + ownerId + " нет предметов для бронирования");
+        }
+    }
+
+    /**
+     * Передает бронирования потребителю по мере чтения курсора, не собирая их в память.
+     * Пользователь проверяется заранее через {@link #checkItemOwner}: к моменту чтения
+     * ответ уже начат, и ошибку нельзя вернуть обычным статусом.
+     */
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void exportAllByItemOwner(int ownerId, Consumer<BookingDto> consumer) {
+        try (Stream<BookingDto> hot = bookingRepository.streamAllByItemOwner(ownerId);
+             Stream<BookingDto> archived = archivedBookingRepository.streamAllByItemOwner(ownerId)) {
+            Iterator<BookingDto> left = hot.iterator();
+            Iterator<BookingDto> right = archived.iterator();
+            BookingDto nextLeft = left.hasNext() ? left.next() : null;
+            BookingDto nextRight = right.hasNext() ? right.next() : null;
+            while (nextLeft != null || nextRight != null) {
+                if (nextRight == null || (nextLeft != null && NEWEST_FIRST.compare(nextLeft, nextRight) <= 0)) {
+                    consumer.accept(nextLeft);
+                    nextLeft = left.hasNext() ? left.next() : null;
+                } else {
+                    consumer.accept(nextRight);
+                    nextRight = right.hasNext() ? right.next() : null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Сливает горячую и архивную страницы, прочитанные с одним курсором и размером и уже
+     * отсортированные по (start DESC, id DESC). Лишние записи отрезает {@link #toPageDto}.
+     * Обе страницы читаются в транзакции REPEATABLE READ, то есть из одного снимка: порция,
+     * перенесенная архиватором между двумя запросами, не задвоится и не пропадет.
+     */
+    private List<BookingDto> mergeWithArchive(List<BookingDto> hot, List<BookingDto> archived) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<BookingDto> merged = new ArrayList<>(hot.size() + archived.size());
+        int i = 0;
+        int j = 0;
+        while (i < hot.size() || j < archived.size()) {
+            if (j == archived.size() || (i < hot.size() && NEWEST_FIRST.compare(hot.get(i), archived.get(j)) <= 0)) {
+                merged.add(hot.get(i++));
+            } else {
+                merged.add(archived.get(j++));
+            }
+        }
+        return merged;
+    }
+
+    private void publishStatus(Booking booking) {
+        eventPublisher.publishEvent(new BookingStatusEvent(booking.getId(), booking.getItem().getId(),
+                booking.getBooker().getId(), booking.getItem().getOwner().getId(), booking.getStatus()));
+    }
+
+    private BookingPageDto toPageDto(List<BookingDto> bookings, int size) {
+        if (bookings.size() <= size) {
+            return new BookingPageDto(bookings, null);
+        }
+        List<BookingDto> page = bookings.subList(0, size);
+        BookingDto last = page.get(size - 1);
+        return new BookingPageDto(page, new Cursor(last.getStart(), last.getId()).encode());
+    }
 
     private Booking getBookingById(int bookingId) {
         return bookingRepository.findById(bookingId).orElseThrow(() ->
                 new NotFoundException("бронирование с id " + bookingId + " не найдено"));
     }
 
+    private ArchivedBooking getArchivedBookingById(int bookingId) {
+        return archivedBookingRepository.findById(bookingId).orElseThrow(() ->
+                new NotFoundException("бронирование с id " + bookingId + " не найдено"));
+    }
+
+    private void checkAccess(User booker, Item item, int userId, int bookingId) {
+        if (booker.getId() != userId && item.getOwner().getId() != userId) {
+            throw new NoAccessException("у пользователя " + userId + " нет доступа к бронированию " + bookingId);
+        }
+    }
+
     private User getUserById(int id) {
         return userRepository.findById(id).orElseThrow(() ->
                 new NotFoundException("пользователь с id " + id + " не найден"));
@@ -123,6 +427,97 @@ public class BookingServiceImpl implements BookingService {
                 new NotFoundException("предмет с id " + id + " не найден"));
     }
 
+    private Item lockItemById(int id) {
+        return itemRepository.findByIdForUpdate(id).orElseThrow(() ->
+                new NotFoundException("предмет с id " + id + " не найден"));
+    }
+
+    private void checkNoApprovedOverlap(int itemId, LocalDateTime start, LocalDateTime end) {
+        bookingRepository.findLastApprovedStartingBefore(itemId, end)
+                .filter(approved -> approved.getEnd().isAfter(start))
+                .ifPresent(approved -> {
+                    throw new BookingConflictException(format("предмет %d уже забронирован с %s по %s",
+                            itemId, approved.getStart(), approved.getEnd()));
+                });
+    }
+
+    /**
+     * Одобренные бронирования каждой вещи, пересекающие ее собственное окно от самого раннего
+     * начала до самого позднего конца ее кандидатов. Общее окно на весь пакет растягивалось бы
+     * по самой длинной вещи и читало бы бронирования остальных вещей за весь этот период.
+     */
+    private <T> Map<Integer, List<Booking>> findApprovedInItemWindows(Collection<T> candidates,
+                                                                      Function<T, Integer> itemId,
+                                                                      Function<T, LocalDateTime> start,
+                                                                      Function<T, LocalDateTime> end) {
+        Map<Integer, LocalDateTime> from = new HashMap<>();
+        Map<Integer, LocalDateTime> to = new HashMap<>();
+        for (T candidate : candidates) {
+            from.merge(itemId.apply(candidate), start.apply(candidate), (a, b) -> a.isBefore(b) ? a : b);
+            to.merge(itemId.apply(candidate), end.apply(candidate), (a, b) -> a.isAfter(b) ? a : b);
+        }
+        Map<Integer, List<Booking>> approvedByItem = new HashMap<>();
+        from.forEach((id, windowStart) -> approvedByItem.put(id,
+                new ArrayList<>(bookingRepository.findApprovedOverlapping(id, windowStart, to.get(id)))));
+        return approvedByItem;
+    }
+
+    private List<Booking> admitNonOverlapping(List<Booking> candidates, Map<Integer, String> refused) {
+        Set<Integer> itemIds = candidates.stream().map(booking -> booking.getItem().getId()).collect(Collectors.toSet());
+        itemRepository.findAllByIdForUpdate(itemIds);
+        Map<Integer, List<Booking>> approvedByItem = findApprovedInItemWindows(candidates,
+                booking -> booking.getItem().getId(), Booking::getStart, Booking::getEnd);
+        List<Booking> admitted = new ArrayList<>();
+        for (Booking candidate : candidates.stream().sorted(Comparator.comparing(Booking::getStart)).toList()) {
+            List<Booking> approved = approvedByItem.get(candidate.getItem().getId());
+            Optional<Booking> conflict = approved.stream()
+                    .filter(booking -> booking.getStart().isBefore(candidate.getEnd())
+                            && booking.getEnd().isAfter(candidate.getStart()))
+                    .findFirst();
+            if (conflict.isPresent()) {
+                refused.put(candidate.getId(), format("предмет %d уже забронирован с %s по %s",
+                        candidate.getItem().getId(), conflict.get().getStart(), conflict.get().getEnd()));
+            } else {
+                approved.add(candidate);
+                admitted.add(candidate);
+            }
+        }
+        return admitted;
+    }
+
+    private String validate(BookingCreateDto newBooking) {
+        if (newBooking == null) {
+            return "пустая запись";
+        }
+        Set<ConstraintViolation<BookingCreateDto>> violations = validator.validate(newBooking);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        if (!newBooking.getStart().isBefore(newBooking.getEnd())) {
+            return "начало бронирования должно быть раньше конца";
+        }
+        return null;
+    }
+
+    private String checkAdmission(BookingCreateDto newBooking, Item item, List<Booking> approved) {
+        if (item == null) {
+            return "предмет с id " + newBooking.getItemId() + " не найден";
+        }
+        if (!item.getAvailable()) {
+            return "предмет с id " + item.getId() + " уже занят";
+        }
+        return approved.stream()
+                .filter(booking -> booking.getStart().isBefore(newBooking.getEnd())
+                        && booking.getEnd().isAfter(newBooking.getStart()))
+                .findFirst()
+                .map(booking -> format("предмет %d уже забронирован с %s по %s",
+                        item.getId(), booking.getStart(), booking.getEnd()))
+                .orElse(null);
+    }
+
     private BookingState getBookingStateFromString(String state) {
         final BookingState bookingState;
         try {
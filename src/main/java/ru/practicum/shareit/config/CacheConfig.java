@@ -0,0 +1,38 @@
+package ru.practicum.shareit.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.cache.interceptor.SimpleCacheResolver;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * Кеширование включается отдельной конфигурацией, а не на классе приложения,
+ * чтобы срезы вроде @DataJpaTest не требовали CacheManager.
+ */
+@Configuration
+@EnableCaching
+@RequiredArgsConstructor
+public class CacheConfig implements CachingConfigurer {
+    private final ObjectProvider<CacheManager> cacheManager;
+
+    /**
+     * Интерцептор кеша и транзакционный интерцептор имеют одинаковый порядок, поэтому @CacheEvict
+     * на транзакционном методе мог сработать до коммита, и параллельный запрос успевал положить
+     * в кеш старые данные. Аннотации работают с кешами через декоратор, который в транзакции
+     * откладывает сброс и запись до коммита; сами кеши остаются Caffeine, и их метрики не меняются.
+     */
+    @Override
+    public CacheResolver cacheResolver() {
+        SingletonSupplier<CacheResolver> resolver = SingletonSupplier.of(() -> new SimpleCacheResolver(cacheManager.getObject()));
+        return context -> resolver.obtain().resolveCaches(context)
+                .stream()
+                .map(TransactionAwareCacheDecorator::new)
+                .toList();
+    }
+}
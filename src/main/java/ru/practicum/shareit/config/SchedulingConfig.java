@@ -0,0 +1,12 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Фоновые задачи включаются отдельной конфигурацией по той же причине, что и {@link CacheConfig}.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
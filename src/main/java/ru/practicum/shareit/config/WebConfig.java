@@ -0,0 +1,36 @@
+package ru.practicum.shareit.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.shareit.metrics.QueryBudgetInterceptor;
+import ru.practicum.shareit.ratelimit.RateLimitInterceptor;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+    private final ObjectProvider<RateLimitInterceptor> rateLimitInterceptor;
+    private final QueryBudgetInterceptor queryBudgetInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        rateLimitInterceptor.ifAvailable(registry::addInterceptor);
+        registry.addInterceptor(queryBudgetInterceptor);
+    }
+
+    /**
+     * Последнее и следующее бронирование в GET /items зависят от текущего времени, а не только
+     * от версий, поэтому для этого списка ETag считается по телу ответа.
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> ownerItemsEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/items");
+        return registration;
+    }
+}
@@ -1,14 +1,21 @@
 package ru.practicum.shareit.handler;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.ValidationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.exception.EmailAlreadyExists;
+import ru.practicum.shareit.exception.IdempotencyConflictException;
 import ru.practicum.shareit.exception.NoAccessException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.TooManyRequestsException;
 
 @Component
 @Slf4j
@@ -29,6 +36,42 @@ public class GlobalExceptionHandler {
         return new ErrorResponse("no access", exception.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleBookingConflict(final BookingConflictException exception) {
+        log.error("booking conflict", exception);
+        return new ErrorResponse("conflict", exception.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleEmailAlreadyExists(final EmailAlreadyExists exception) {
+        log.error("email already exists", exception);
+        return new ErrorResponse("conflict", exception.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleIdempotencyConflict(final IdempotencyConflictException exception) {
+        log.error("idempotency conflict", exception);
+        return new ErrorResponse("conflict", exception.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLocking(final OptimisticLockingFailureException exception) {
+        log.error("concurrent modification", exception);
+        return new ErrorResponse("conflict", "объект был изменен параллельно, повторите запрос");
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ErrorResponse handleTooManyRequests(final TooManyRequestsException exception, HttpServletResponse response) {
+        log.warn(exception.getMessage());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()));
+        return new ErrorResponse("too many requests", exception.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleValidationException(final ValidationException exception) {
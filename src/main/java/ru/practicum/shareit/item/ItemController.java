@@ -1,14 +1,22 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.comment.dto.CommentCreateDto;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.metrics.QueryBudget;
+import ru.practicum.shareit.ratelimit.RateLimit;
+import ru.practicum.shareit.ratelimit.RateLimitGroup;
+import ru.practicum.shareit.util.IdempotencyStore;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 
 /**
@@ -19,38 +27,69 @@ import java.util.Collection;
 @RequiredArgsConstructor
 @Validated
 public class ItemController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     private final ItemService itemService;
+    private final IdempotencyStore idempotencyStore;
 
     @PostMapping
+    @QueryBudget(5)
     @ResponseStatus(HttpStatus.CREATED)
     public ItemDto create(@Validated @RequestBody ItemCreateDto newItem, @RequestHeader(name = "X-Sharer-User-Id") int userId) {
         return itemService.create(newItem, userId);
     }
 
     @PatchMapping("/{itemId}")
+    @QueryBudget(5)
     public ItemDto update(@Validated @RequestBody ItemUpdateDto updatedItem, @PathVariable int itemId, @RequestHeader(name = "X-Sharer-User-Id") int userId) {
         return itemService.update(updatedItem, itemId, userId);
     }
 
     @GetMapping("/{itemId}")
-    public ItemWithCommentsDto findById(@PathVariable int itemId) {
-        return itemService.findById(itemId);
+    @QueryBudget(3)
+    public ResponseEntity<ItemWithCommentsDto> findById(@PathVariable int itemId, WebRequest request) {
+        String eTag = itemService.getETag(itemId);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(itemService.findById(itemId));
     }
 
     @GetMapping
-    public Collection<ItemOwnerDto> findItemsByOwnerId(@RequestHeader(name = "X-Sharer-User-Id") int ownerId) {
-        return itemService.getItemsWithBookingsAndComments(ownerId);
+    @QueryBudget(4)
+    @RateLimit(RateLimitGroup.LIST)
+    public ResponseEntity<Collection<ItemOwnerDto>> findItemsByOwnerId(@RequestHeader(name = "X-Sharer-User-Id") int ownerId,
+                                                                       @RequestParam(name = "after", required = false) String after,
+                                                                       @RequestParam(name = "size", required = false) Integer size) {
+        ItemOwnerPageDto page = itemService.getItemsWithBookingsAndComments(ownerId, after, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 
     @GetMapping("/search")
+    @QueryBudget(1)
+    @RateLimit(RateLimitGroup.SEARCH)
     public Collection<ItemDto> search(@RequestParam(name = "text") String text) {
         return itemService.search(text);
     }
 
+    @GetMapping("/{itemId}/availability")
+    @QueryBudget(2)
+    public ItemAvailabilityDto getAvailability(@PathVariable int itemId,
+                                               @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getAvailability(itemId, from, to);
+    }
+
     @PostMapping("/{itemId}/comment")
+    @QueryBudget(8)
     public CommentDto addComment(@Validated @RequestBody CommentCreateDto newComment,
                                  @PathVariable int itemId,
-                                 @RequestHeader(name = "X-Sharer-User-Id") int userId) {
-        return itemService.postComment(newComment, userId, itemId);
+                                 @RequestHeader(name = "X-Sharer-User-Id") int userId,
+                                 @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, userId, "POST /items/" + itemId + "/comment", newComment,
+                () -> itemService.postComment(newComment, userId, itemId));
     }
 }
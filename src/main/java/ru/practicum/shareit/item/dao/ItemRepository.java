@@ -1,26 +1,63 @@
 package ru.practicum.shareit.item.dao;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dto.ItemOwnerDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchDocument;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Integer> {
 
-    Collection<Item> findByOwnerId(@Param("ownerId") int ownerId);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = :itemId")
+    Optional<Item> findByIdForUpdate(@Param("itemId") int itemId);
+
+    /**
+     * Читает вещь и увеличивает ее версию при фиксации транзакции, даже если сама вещь не менялась.
+     */
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT i FROM Item i WHERE i.id = :itemId")
+    Optional<Item> findByIdForceIncrement(@Param("itemId") int itemId);
+
+    /**
+     * Имя автора входит в ответ GET /items/{itemId}, поэтому при его смене версии
+     * прокомментированных им вещей увеличиваются.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE Item i SET i.version = i.version + 1
+            WHERE i.id IN (SELECT c.item.id FROM Comment c WHERE c.author.id = :authorId)
+            """)
+    int incrementVersionOfItemsCommentedBy(@Param("authorId") int authorId);
+
+    /**
+     * Блокирует строки в порядке id, чтобы параллельные пакетные бронирования не взаимоблокировались.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id IN :itemIds ORDER BY i.id")
+    List<Item> findAllByIdForUpdate(@Param("itemIds") Collection<Integer> itemIds);
 
     @Query("""
-            SELECT i FROM Item i
-            JOIN FETCH i.owner
-            WHERE (
-            LOWER(i.name) LIKE :query OR
-            LOWER(i.description) LIKE :query
-            )
-            AND i.available=true
+            SELECT new ru.practicum.shareit.item.search.ItemSearchDocument(i.id, i.name, i.description, i.available, i.owner.id,
+                i.request.id)
+            FROM Item i
+            WHERE i.id > :afterId
+            ORDER BY i.id
             """)
-    Collection<Item> searchAvailableItems(@Param("query") String query);
+    List<ItemSearchDocument> findSearchDocuments(@Param("afterId") int afterId, Pageable pageable);
 
     @Query("""
             SELECT COUNT(i.id) > 0 FROM Item i
@@ -28,4 +65,30 @@ public interface ItemRepository extends JpaRepository<Item, Integer> {
             """)
     boolean existByOwnerId(@Param("ownerId") int ownerId);
 
+    @Query("""
+            SELECT new ru.practicum.shareit.request.dto.ItemAnswerDto(i.id, i.name, i.owner.id, i.request.id)
+            FROM Item i
+            WHERE i.request.id IN :requestIds
+            """)
+    List<ItemAnswerDto> findAnswersByRequestIds(@Param("requestIds") Collection<Integer> requestIds);
+
+    /**
+     * Вещи владельца после afterId вместе с концом последнего и началом следующего
+     * одобренного бронирования относительно now, за один проход по бронированиям.
+     */
+    @Query("""
+            SELECT new ru.practicum.shareit.item.dto.ItemOwnerDto(i.id, i.name, i.description, i.available,
+                MAX(CASE WHEN b.end < :now THEN b.end END),
+                MIN(CASE WHEN b.start > :now THEN b.start END))
+            FROM Item i
+            LEFT JOIN Booking b ON b.item = i AND b.status = 'APPROVED'
+            WHERE i.owner.id = :ownerId AND i.id > :afterId
+            GROUP BY i.id, i.name, i.description, i.available
+            ORDER BY i.id
+            """)
+    List<ItemOwnerDto> findOwnerDashboard(@Param("ownerId") int ownerId,
+                                          @Param("afterId") int afterId,
+                                          @Param("now") LocalDateTime now,
+                                          Pageable pageable);
+
 }
@@ -15,5 +15,6 @@ public class ItemCreateDto {
     private String description;
     @NotNull
     private Boolean available;
+    private Integer requestId;
 
 }
@@ -13,4 +13,5 @@ public class ItemDto {
     private String name;
     private String description;
     private Boolean available;
+    private Integer requestId;
 }
@@ -22,4 +22,11 @@ public class ItemOwnerDto {
     private LocalDateTime next;
     private Set<CommentDto> comments;
 
+    /**
+     * Конструктор для JPQL-проекции сводки владельца, отзывы добавляются отдельным запросом.
+     */
+    public ItemOwnerDto(Integer id, String name, String description, Boolean available,
+                        LocalDateTime last, LocalDateTime next) {
+        this(id, name, description, available, last, next, null);
+    }
 }
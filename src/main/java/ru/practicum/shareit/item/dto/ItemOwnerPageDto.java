@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Collection;
+
+@Data
+@AllArgsConstructor
+public class ItemOwnerPageDto {
+    private Collection<ItemOwnerDto> items;
+    private String nextCursor;
+}
@@ -4,6 +4,8 @@ import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.mapper.CommentMapper;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchDocument;
+import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
@@ -16,6 +18,17 @@ public class ItemMapper {
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
+                .requestId(item.getRequest() == null ? null : item.getRequest().getId())
+                .build();
+    }
+
+    public static ItemDto toDto(ItemSearchDocument document) {
+        return ItemDto.builder()
+                .id(document.getId())
+                .name(document.getName())
+                .description(document.getDescription())
+                .available(document.getAvailable())
+                .requestId(document.getRequestId())
                 .build();
     }
 
@@ -25,8 +38,8 @@ public class ItemMapper {
                 .toList();
     }
 
-    public static Item toEntity(ItemCreateDto createDto, User owner) {
-        return new Item(0, createDto.getName(), createDto.getDescription(), owner, null, createDto.getAvailable());
+    public static Item toEntity(ItemCreateDto createDto, User owner, ItemRequest request) {
+        return new Item(null, createDto.getName(), createDto.getDescription(), owner, request, createDto.getAvailable(), null);
 
     }
 
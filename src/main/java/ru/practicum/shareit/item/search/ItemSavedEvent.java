@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Вещь создана или изменена. Несет снимок полей, взятый внутри транзакции, и попадает
+ * в поисковый индекс только после ее фиксации.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemSavedEvent {
+    private final ItemSearchDocument document;
+}
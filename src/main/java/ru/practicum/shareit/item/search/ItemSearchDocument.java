@@ -0,0 +1,61 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Locale;
+
+@Getter
+@ToString
+public class ItemSearchDocument {
+    private final Integer id;
+    private final String name;
+    private final String description;
+    private final Boolean available;
+    private final Integer ownerId;
+    private final Integer requestId;
+    @ToString.Exclude
+    private final String lowerName;
+    @ToString.Exclude
+    private final String lowerDescription;
+
+    public ItemSearchDocument(Integer id, String name, String description, Boolean available, Integer ownerId,
+                              Integer requestId) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.available = available;
+        this.ownerId = ownerId;
+        this.requestId = requestId;
+        this.lowerName = name == null ? "" : name.toLowerCase(Locale.ROOT);
+        this.lowerDescription = description == null ? "" : description.toLowerCase(Locale.ROOT);
+    }
+
+    public static ItemSearchDocument of(Item item) {
+        return new ItemSearchDocument(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getOwner().getId(), item.getRequest() == null ? null : item.getRequest().getId());
+    }
+
+    /**
+     * Релевантность документа для уже приведенной к нижнему регистру строки.
+     * 0 означает, что строка не входит ни в название, ни в описание.
+     */
+    int score(String needle) {
+        int score = 0;
+        int nameAt = lowerName.indexOf(needle);
+        if (nameAt >= 0) {
+            score += 4;
+            if (nameAt == 0 || !Character.isLetterOrDigit(lowerName.charAt(nameAt - 1))) {
+                score += 2;
+            }
+            if (lowerName.length() == needle.length()) {
+                score += 4;
+            }
+        }
+        if (lowerDescription.contains(needle)) {
+            score += 1;
+        }
+        return score;
+    }
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс доступных вещей по триграммам названия и описания.
+ * Триграммы отбирают кандидатов, после чего вхождение строки проверяется напрямую,
+ * поэтому результат совпадает с поиском подстроки без учета регистра.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, IntPostingList> postings = new HashMap<>();
+    private final Map<Integer, ItemSearchDocument> documents = new HashMap<>();
+
+    @PostConstruct
+    void load() {
+        int lastId = 0;
+        List<ItemSearchDocument> batch;
+        do {
+            batch = itemRepository.findSearchDocuments(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            batch.forEach(this::put);
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        log.info("поисковый индекс построен: {} вещей, {} триграмм", documents.size(), postings.size());
+    }
+
+    /**
+     * Индексирует вещь только после фиксации транзакции: изменение, отклоненное при фиксации
+     * (например, из-за конфликта версий), в индекс не попадает.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(ItemSavedEvent event) {
+        put(event.getDocument());
+    }
+
+    public void removeByOwner(int ownerId) {
+        lock.writeLock().lock();
+        try {
+            List<ItemSearchDocument> owned = documents.values()
+                    .stream()
+                    .filter(document -> document.getOwnerId() == ownerId)
+                    .toList();
+            owned.forEach(this::removeDocument);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ItemDto> search(String query) {
+        final String needle = query.trim().toLowerCase(Locale.ROOT);
+        if (needle.isEmpty()) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            List<ItemSearchDocument> found = new ArrayList<>();
+            Map<Integer, Integer> scores = new HashMap<>();
+            for (int id : findCandidates(needle)) {
+                ItemSearchDocument document = documents.get(id);
+                int score = document.score(needle);
+                if (score > 0) {
+                    found.add(document);
+                    scores.put(id, score);
+                }
+            }
+            found.sort(Comparator.comparing((ItemSearchDocument document) -> scores.get(document.getId()))
+                    .reversed()
+                    .thenComparing(ItemSearchDocument::getId));
+            return found.stream()
+                    .map(ItemMapper::toDto)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] findCandidates(String needle) {
+        if (needle.length() < GRAM_LENGTH) {
+            return documents.keySet().stream().mapToInt(Integer::intValue).toArray();
+        }
+        List<IntPostingList> lists = new ArrayList<>();
+        for (String gram : grams(needle)) {
+            IntPostingList list = postings.get(gram);
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(IntPostingList::size));
+        int[] candidates = lists.get(0).toArray();
+        int count = candidates.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            count = lists.get(i).retain(candidates, count);
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    private void put(ItemSearchDocument document) {
+        lock.writeLock().lock();
+        try {
+            ItemSearchDocument old = documents.get(document.getId());
+            if (old != null) {
+                removeDocument(old);
+            }
+            if (Boolean.TRUE.equals(document.getAvailable())) {
+                documents.put(document.getId(), document);
+                for (String gram : grams(document)) {
+                    postings.computeIfAbsent(gram, key -> new IntPostingList()).add(document.getId());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeDocument(ItemSearchDocument document) {
+        documents.remove(document.getId());
+        for (String gram : grams(document)) {
+            IntPostingList list = postings.get(gram);
+            if (list != null) {
+                list.remove(document.getId());
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Set<String> grams(ItemSearchDocument document) {
+        Set<String> grams = grams(document.getLowerName());
+        grams.addAll(grams(document.getLowerDescription()));
+        return grams;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+}
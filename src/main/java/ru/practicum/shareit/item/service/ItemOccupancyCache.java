@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.event.BookingStatusEvent;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Занятые интервалы вещи от текущего момента: одобренные и ожидающие бронирования,
+ * слитые в непересекающиеся интервалы по возрастанию начала. Запись в кеше живет до
+ * следующего изменения бронирований этой вещи.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ItemOccupancyCache {
+    public static final String ITEM_OCCUPANCY_CACHE = "itemOccupancy";
+    private final BookingRepository bookingRepository;
+
+    @Cacheable(cacheNames = ITEM_OCCUPANCY_CACHE, key = "#itemId")
+    public List<AvailabilityIntervalDto> getOccupied(int itemId) {
+        List<AvailabilityIntervalDto> merged = new ArrayList<>();
+        AvailabilityIntervalDto current = null;
+        for (AvailabilityIntervalDto interval : bookingRepository.findActiveIntervals(itemId, LocalDateTime.now())) {
+            if (current != null && !interval.getStart().isAfter(current.getEnd())) {
+                if (interval.getEnd().isAfter(current.getEnd())) {
+                    current.setEnd(interval.getEnd());
+                }
+            } else {
+                current = new AvailabilityIntervalDto(interval.getStart(), interval.getEnd());
+                merged.add(current);
+            }
+        }
+        log.debug("занятость вещи {} загружена: {} интервалов", itemId, merged.size());
+        return List.copyOf(merged);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @CacheEvict(cacheNames = ITEM_OCCUPANCY_CACHE, key = "#event.itemId")
+    public void onStatusChange(BookingStatusEvent event) {
+        log.trace("занятость вещи {} сброшена", event.getItemId());
+    }
+}
@@ -4,6 +4,7 @@ import ru.practicum.shareit.item.comment.dto.CommentCreateDto;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.*;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 
 
@@ -12,11 +13,15 @@ public interface ItemService {
 
     ItemDto update(ItemUpdateDto updatedItem, int itemId, int userId);
 
+    String getETag(int itemId);
+
     ItemWithCommentsDto findById(int itemId);
 
     Collection<ItemDto> search(String query);
 
-    Collection<ItemOwnerDto> getItemsWithBookingsAndComments(int ownerId);
+    ItemOwnerPageDto getItemsWithBookingsAndComments(int ownerId, String after, Integer size);
+
+    ItemAvailabilityDto getAvailability(int itemId, LocalDateTime from, LocalDateTime to);
 
     CommentDto postComment(CommentCreateDto newComment, int userId, int itemId);
 
@@ -1,9 +1,16 @@
 package ru.practicum.shareit.item.service;
 
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.Booking;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dao.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.dao.BookingRepository;
 import ru.practicum.shareit.exception.NoAccessException;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -15,12 +22,18 @@ import ru.practicum.shareit.item.comment.mapper.CommentMapper;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSavedEvent;
+import ru.practicum.shareit.item.search.ItemSearchDocument;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.util.Cursor;
+import ru.practicum.shareit.util.Pages;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
@@ -32,12 +45,21 @@ import static ru.practicum.shareit.util.Updater.runIfNotNull;
 @RequiredArgsConstructor
 @Slf4j
 public class ItemServiceImpl implements ItemService {
+    public static final String ITEM_DETAILS_CACHE = "itemDetails";
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemOccupancyCache itemOccupancyCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManagerFactory entityManagerFactory;
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = ITEM_DETAILS_CACHE, key = "#itemId")
     public ItemDto update(ItemUpdateDto updatedItem, int itemId, int userId) {
         Item oldItem = getItemById(itemId);
         if (oldItem.getOwner().getId() != userId) {
@@ -48,7 +70,9 @@ public class ItemServiceImpl implements ItemService {
         runIfNotNull(updatedItem.getAvailable(), () -> oldItem.setAvailable(updatedItem.getAvailable()));
         log.trace("вещь с id {} обновлена", itemId);
         log.debug("обновленная вещь {}", oldItem);
-        return toDto(itemRepository.save(oldItem));
+        Item savedItem = itemRepository.save(oldItem);
+        eventPublisher.publishEvent(new ItemSavedEvent(ItemSearchDocument.of(savedItem)));
+        return toDto(savedItem);
     }
 
     @Override
@@ -57,12 +81,20 @@ public class ItemServiceImpl implements ItemService {
         if (query == null || query.isBlank()) {
             return Collections.emptyList();
         }
-        final String lowerCaseQuery = "%" + query.trim().toLowerCase() + "%";
-        log.trace("отредактированная строка " + lowerCaseQuery);
-        return toDto(itemRepository.searchAvailableItems(lowerCaseQuery));
+        return itemSearchIndex.search(query);
     }
 
+    /**
+     * Версия вещи меняется при каждом изменении вещи и ее отзывов, поэтому по ней можно
+     * ответить 304 без построения DTO. Сама вещь обычно берется из кеша второго уровня.
+     */
     @Override
+    public String getETag(int itemId) {
+        return itemId + "-" + getItemById(itemId).getVersion();
+    }
+
+    @Override
+    @Cacheable(cacheNames = ITEM_DETAILS_CACHE, key = "#itemId")
     public ItemWithCommentsDto findById(int itemId) {
         log.debug("поиск вещи с id {}", itemId);
         return toItemWithComments(getItemById(itemId), commentRepository.findByItemId(itemId));
@@ -72,57 +104,119 @@ public class ItemServiceImpl implements ItemService {
     public ItemDto create(ItemCreateDto item, int userId) {
         log.trace("запрос на создание предмета от пользователя {}", userId);
         User owner = getUserById(userId);
-        Item newItem = toEntity(item, owner);
-        return toDto(itemRepository.save(newItem));
+        ItemRequest request = item.getRequestId() == null ? null : itemRequestRepository.findById(item.getRequestId())
+                .orElseThrow(() -> new NotFoundException("запрос с id " + item.getRequestId() + " не найден"));
+        Item newItem = itemRepository.save(toEntity(item, owner, request));
+        eventPublisher.publishEvent(new ItemSavedEvent(ItemSearchDocument.of(newItem)));
+        return toDto(newItem);
     }
 
     @Override
-    public Collection<ItemOwnerDto> getItemsWithBookingsAndComments(int ownerId) {
-        Collection<Item> items = itemRepository.findByOwnerId(ownerId);
+    @Transactional(readOnly = true)
+    public ItemOwnerPageDto getItemsWithBookingsAndComments(int ownerId, String after, Integer size) {
+        final LocalDateTime now = LocalDateTime.now();
+        final int pageSize = Pages.checkSize(size);
+        List<ItemOwnerDto> items = itemRepository.findOwnerDashboard(ownerId, Cursor.decodeId(after), now,
+                Pages.withNext(pageSize));
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            nextCursor = Cursor.ofId(items.get(pageSize - 1).getId()).encode();
+        }
+        if (items.isEmpty()) {
+            return new ItemOwnerPageDto(items, null);
+        }
         List<Integer> itemIds = items
                 .stream()
-                .map(Item::getId)
+                .map(ItemOwnerDto::getId)
                 .toList();
         log.debug("itemIds{}", itemIds);
-        List<Comment> comments = commentRepository.findByItemIdIn(itemIds);
-        log.debug("comments{}", comments);
-        Map<Integer, List<Comment>> commentsByItem;
+        fillLastFromArchive(items);
+        Map<Integer, List<Comment>> commentsByItem = commentRepository.findByItemIdIn(itemIds)
+                .stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId()));
+        items.forEach(item -> item.setComments(CommentMapper.toCommentDto(
+                commentsByItem.getOrDefault(item.getId(), Collections.emptyList()))));
+        return new ItemOwnerPageDto(items, nextCursor);
+    }
+
+    /**
+     * Занятые интервалы обрезаются по окну [from, to), свободными считаются промежутки между ними.
+     * Прошедшее время не показывается: окно начинается не раньше текущего момента.
+     */
+    @Override
+    public ItemAvailabilityDto getAvailability(int itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("начало периода должно быть раньше конца");
+        }
+        getItemById(itemId);
+        LocalDateTime cursor = from.isAfter(LocalDateTime.now()) ? from : LocalDateTime.now();
+        List<AvailabilityIntervalDto> occupied = new ArrayList<>();
+        List<AvailabilityIntervalDto> free = new ArrayList<>();
+        for (AvailabilityIntervalDto interval : itemOccupancyCache.getOccupied(itemId)) {
+            if (!interval.getStart().isBefore(to)) {
+                break;
+            }
+            if (!interval.getEnd().isAfter(cursor)) {
+                continue;
+            }
+            if (interval.getStart().isAfter(cursor)) {
+                free.add(new AvailabilityIntervalDto(cursor, interval.getStart()));
+            }
+            LocalDateTime end = interval.getEnd().isBefore(to) ? interval.getEnd() : to;
+            occupied.add(new AvailabilityIntervalDto(interval.getStart().isAfter(cursor) ? interval.getStart() : cursor, end));
+            cursor = end;
+        }
+        if (cursor.isBefore(to)) {
+            free.add(new AvailabilityIntervalDto(cursor, to));
+        }
+        return new ItemAvailabilityDto(itemId, from, to, occupied, free);
+    }
 
-        if (!comments.isEmpty()) {
-            commentsByItem = comments
-                    .stream()
-                    .collect(Collectors.groupingBy(c -> c.getItem().getId()));
-        } else {
-            commentsByItem = new HashMap<>();
+    /**
+     * Если в горячей таблице у вещи нет прошедших бронирований, последнее могло уйти в архив.
+     */
+    private void fillLastFromArchive(List<ItemOwnerDto> items) {
+        List<Integer> withoutLast = items.stream()
+                .filter(item -> item.getLast() == null)
+                .map(ItemOwnerDto::getId)
+                .toList();
+        if (withoutLast.isEmpty()) {
+            return;
         }
-        Map<Integer, Booking> lastBookings = bookingRepository.findLasBookings(itemIds, LocalDateTime.now())
+        Map<Integer, LocalDateTime> archivedLast = archivedBookingRepository.findLastEndsByItemIds(withoutLast)
                 .stream()
-                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity()));
-        Map<Integer, Booking> nextBookings = bookingRepository.findNextBookings(itemIds, LocalDateTime.now())
-                .stream()
-                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity()));
-        log.debug("lastBookings{}", lastBookings);
-        log.debug("nextBookings{}", nextBookings);
-        return items.stream().map(item -> {
-                    Booking lastBooking = lastBookings.get(item.getId());
-                    LocalDateTime last = lastBooking != null ? lastBooking.getEnd() : null;
-                    Booking nextBooking = nextBookings.get(item.getId());
-                    LocalDateTime next = nextBooking != null ? nextBooking.getStart() : null;
-                    List<Comment> itemComments = commentsByItem.getOrDefault(item.getId(), Collections.emptyList());
-                    return toItemOwnerDto(item, last, next, itemComments);
-                })
-                .toList();
+                .collect(Collectors.toMap(ItemLastBookingDto::getItemId, ItemLastBookingDto::getLast));
+        items.forEach(item -> {
+            if (item.getLast() == null) {
+                item.setLast(archivedLast.get(item.getId()));
+            }
+        });
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = ITEM_DETAILS_CACHE, key = "#itemId")
     public CommentDto postComment(CommentCreateDto newComment, int userId, int itemId) {
         User user = getUserById(userId);
-        Item item = getItemById(itemId);
-        if (!bookingRepository.existByBookerIdAndItemId(userId, itemId)) {
+        // отзыв меняет ответ GET /items/{itemId}, поэтому версия вещи тоже растет
+        Item item = itemRepository.findByIdForceIncrement(itemId).orElseThrow(() ->
+                new NotFoundException("предмет с id " + itemId + " не найден"));
+        if (!bookingRepository.existByBookerIdAndItemId(userId, itemId)
+                && !archivedBookingRepository.existByBookerIdAndItemId(userId, itemId)) {
             throw new IllegalArgumentException(format("клиент %d не пользовался вещью %d", userId, itemId));
         }
         Comment comment = CommentMapper.toEntity(newComment, user, item);
-        return toCommentDto(commentRepository.save(comment));
+        CommentDto saved = toCommentDto(commentRepository.save(comment));
+        // принудительное увеличение версии идет мимо кеша второго уровня: без сброса вещи
+        // getETag продолжал бы отдавать старую версию и 304 на устаревший ответ
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                entityManagerFactory.getCache().evict(Item.class, itemId);
+            }
+        });
+        return saved;
     }
 
     private Item getItemById(int id) {
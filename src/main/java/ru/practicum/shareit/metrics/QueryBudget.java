@@ -0,0 +1,17 @@
+package ru.practicum.shareit.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Наибольшее число SQL-запросов, которое может выполнить эндпоинт.
+ * Превышение всегда логируется со стеком, а при shareit.sql.budget.enforce=true
+ * попадает в {@link QueryBudgetViolations}, по которым падают тесты.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+    int value();
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Переносит бюджет из {@link QueryBudget} на область SQL-запросов текущего HTTP-запроса.
+ */
+@Component
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object scope = request.getAttribute(SqlStatementMetricsFilter.SCOPE_ATTRIBUTE);
+        if (handler instanceof HandlerMethod method && scope instanceof SqlStatementTracker.Scope requestScope) {
+            QueryBudget budget = method.getMethodAnnotation(QueryBudget.class);
+            if (budget != null) {
+                requestScope.setThreshold(budget.value());
+                request.setAttribute(SqlStatementMetricsFilter.BUDGET_ATTRIBUTE, budget.value());
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Component
+public class QueryBudgetViolations {
+    private final List<String> violations = new CopyOnWriteArrayList<>();
+
+    void record(String violation) {
+        violations.add(violation);
+    }
+
+    public List<String> getViolations() {
+        return List.copyOf(violations);
+    }
+
+    public void clear() {
+        violations.clear();
+    }
+}
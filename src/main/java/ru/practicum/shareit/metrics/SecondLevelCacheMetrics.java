@@ -0,0 +1,38 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Доля попаданий в каждый регион кеша второго уровня Hibernate. Счетчики попаданий и промахов
+ * по регионам публикует hibernate-micrometer, а здесь добавляется готовое отношение.
+ */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheMetrics implements MeterBinder {
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            Gauge.builder("shareit.cache.l2.hit.ratio", statistics, stats -> hitRatio(stats.getDomainDataRegionStatistics(region)))
+                    .description("Доля попаданий в регион кеша второго уровня")
+                    .tag("region", region)
+                    .register(registry);
+        }
+    }
+
+    private static double hitRatio(CacheRegionStatistics region) {
+        long hits = region.getHitCount();
+        long total = hits + region.getMissCount();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.exception.NoAccessException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemOwnerPageDto;
+import ru.practicum.shareit.request.dto.ItemRequestPageDto;
+
+import java.util.Collection;
+
+/**
+ * Время, результат, число возвращенных строк и SQL-запросов для каждого публичного метода сервисов.
+ */
+@Aspect
+@Component
+@Slf4j
+public class ServiceMetricsAspect {
+    private static final String STATE_PARAMETER = "state";
+    private static final String NO_STATE = "NONE";
+
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry,
+                                @Value("${shareit.sql.warn-threshold:10}") int warnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Around("execution(public * ru.practicum.shareit.*.service.*Service*.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        String service = joinPoint.getTarget().getClass().getSimpleName().replace("Impl", "");
+        Tags tags = Tags.of(
+                "service", service,
+                "method", signature.getName(),
+                "state", findState(signature.getParameterNames(), joinPoint.getArgs()));
+        SqlStatementTracker.Scope scope = SqlStatementTracker.open(service + "." + signature.getName(), warnThreshold);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String result = "found";
+        try {
+            Object value = joinPoint.proceed();
+            DistributionSummary.builder("shareit.service.rows")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(countRows(value));
+            return value;
+        } catch (NotFoundException exception) {
+            result = "not_found";
+            throw exception;
+        } catch (NoAccessException exception) {
+            result = "no_access";
+            throw exception;
+        } catch (Throwable exception) {
+            result = "error";
+            throw exception;
+        } finally {
+            scope.close();
+            sample.stop(Timer.builder("shareit.service")
+                    .tags(tags)
+                    .tag("result", result)
+                    .register(meterRegistry));
+            DistributionSummary.builder("shareit.service.sql.statements")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(scope.getCount());
+            if (scope.isExceeded()) {
+                log.warn("{} выполнил {} SQL-запросов при пороге {}", scope.getName(), scope.getCount(),
+                        scope.getThreshold(), scope.getExcess());
+            }
+        }
+    }
+
+    private static String findState(String[] names, Object[] args) {
+        if (names == null) {
+            return NO_STATE;
+        }
+        for (int i = 0; i < names.length; i++) {
+            if (STATE_PARAMETER.equals(names[i]) && args[i] instanceof String state) {
+                try {
+                    return BookingState.valueOf(state.trim().toUpperCase()).name();
+                } catch (IllegalArgumentException exception) {
+                    return "UNKNOWN";
+                }
+            }
+        }
+        return NO_STATE;
+    }
+
+    private static int countRows(Object value) {
+        if (value instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (value instanceof BookingPageDto page) {
+            return page.getBookings().size();
+        }
+        if (value instanceof ItemOwnerPageDto page) {
+            return page.getItems().size();
+        }
+        if (value instanceof ItemRequestPageDto page) {
+            return page.getRequests().size();
+        }
+        return value == null ? 0 : 1;
+    }
+}
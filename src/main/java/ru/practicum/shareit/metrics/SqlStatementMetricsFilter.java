@@ -0,0 +1,66 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+@Component
+@Slf4j
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+    static final String SCOPE_ATTRIBUTE = SqlStatementMetricsFilter.class.getName() + ".scope";
+    static final String BUDGET_ATTRIBUTE = SqlStatementMetricsFilter.class.getName() + ".budget";
+
+    private final MeterRegistry meterRegistry;
+    private final QueryBudgetViolations violations;
+    private final int warnThreshold;
+    private final boolean enforceBudget;
+
+    public SqlStatementMetricsFilter(MeterRegistry meterRegistry,
+                                     QueryBudgetViolations violations,
+                                     @Value("${shareit.sql.warn-threshold:10}") int warnThreshold,
+                                     @Value("${shareit.sql.budget.enforce:false}") boolean enforceBudget) {
+        this.meterRegistry = meterRegistry;
+        this.violations = violations;
+        this.warnThreshold = warnThreshold;
+        this.enforceBudget = enforceBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementTracker.Scope scope = SqlStatementTracker.open(request.getMethod() + " " + request.getRequestURI(), warnThreshold);
+        request.setAttribute(SCOPE_ATTRIBUTE, scope);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            scope.close();
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String endpoint = request.getMethod() + " " + (uri == null ? "UNKNOWN" : uri);
+            DistributionSummary.builder("shareit.http.sql.statements")
+                    .description("SQL-запросов на один HTTP-запрос")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri == null ? "UNKNOWN" : uri.toString())
+                    .tag("status", String.valueOf(response.getStatus()))
+                    .register(meterRegistry)
+                    .record(scope.getCount());
+            if (scope.isExceeded()) {
+                log.warn("{} выполнил {} SQL-запросов при пороге {}", endpoint, scope.getCount(), scope.getThreshold(),
+                        scope.getExcess());
+                if (enforceBudget && request.getAttribute(BUDGET_ATTRIBUTE) != null) {
+                    violations.record(String.format("%s: %d SQL-запросов при бюджете %d",
+                            endpoint, scope.getCount(), scope.getThreshold()));
+                }
+            }
+        }
+    }
+}
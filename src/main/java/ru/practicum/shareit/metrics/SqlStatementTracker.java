@@ -0,0 +1,70 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Считает SQL-запросы текущего потока во вложенных областях: HTTP-запрос, метод сервиса.
+ * Запрос засчитывается всем открытым областям. Для запроса, превысившего порог области,
+ * запоминается стек, по которому видно, откуда пошли лишние запросы.
+ */
+public final class SqlStatementTracker {
+    private static final ThreadLocal<Deque<Scope>> SCOPES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private SqlStatementTracker() {
+    }
+
+    public static Scope open(String name, int threshold) {
+        Scope scope = new Scope(name, threshold);
+        SCOPES.get().push(scope);
+        return scope;
+    }
+
+    static void onStatement(String sql) {
+        Deque<Scope> scopes = SCOPES.get();
+        if (scopes.isEmpty()) {
+            SCOPES.remove();
+            return;
+        }
+        for (Scope scope : scopes) {
+            scope.record(sql);
+        }
+    }
+
+    @Getter
+    public static final class Scope implements AutoCloseable {
+        private final String name;
+        @Setter
+        private int threshold;
+        private int count;
+        private Throwable excess;
+
+        private Scope(String name, int threshold) {
+            this.name = name;
+            this.threshold = threshold;
+        }
+
+        public boolean isExceeded() {
+            return count > threshold;
+        }
+
+        private void record(String sql) {
+            count++;
+            if (count > threshold && excess == null) {
+                excess = new Throwable(String.format("%s: запрос %d сверх порога %d: %s", name, count, threshold, sql));
+            }
+        }
+
+        @Override
+        public void close() {
+            Deque<Scope> scopes = SCOPES.get();
+            scopes.remove(this);
+            if (scopes.isEmpty()) {
+                SCOPES.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Группа лимита для эндпоинта. Методы без аннотации попадают в {@link RateLimitGroup#DEFAULT}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimit {
+    RateLimitGroup value();
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Группы эндпоинтов с общим лимитом запросов. Значения по умолчанию переопределяются
+ * свойствами shareit.rate-limit.&lt;группа&gt;.capacity и shareit.rate-limit.&lt;группа&gt;.per-second.
+ */
+@Getter
+@AllArgsConstructor
+public enum RateLimitGroup {
+    DEFAULT("default", 60, 20),
+    LIST("list", 20, 5),
+    SEARCH("search", 10, 2);
+
+    private final String key;
+    private final int defaultCapacity;
+    private final double defaultPerSecond;
+}
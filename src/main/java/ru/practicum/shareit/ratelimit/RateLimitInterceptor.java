@@ -0,0 +1,51 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничивает частоту запросов пользователя из заголовка X-Sharer-User-Id.
+ * Запросы без заголовка (например, к /users) не ограничиваются. Отключается свойством
+ * shareit.rate-limit.enabled=false, например для нагрузочных тестов и бенчмарков.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final TokenBucketRateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String header = request.getHeader(USER_HEADER);
+        if (header == null || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        int userId;
+        try {
+            userId = Integer.parseInt(header.trim());
+        } catch (NumberFormatException exception) {
+            return true;
+        }
+        RateLimit rateLimit = method.getMethodAnnotation(RateLimit.class);
+        RateLimitGroup group = rateLimit == null ? RateLimitGroup.DEFAULT : rateLimit.value();
+        long waitNanos = rateLimiter.tryAcquire(userId, group);
+        if (waitNanos > 0) {
+            meterRegistry.counter("shareit.ratelimit.rejected", "group", group.getKey()).increment();
+            long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            throw new TooManyRequestsException("превышен лимит запросов пользователя " + userId, retryAfter);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Token bucket на пару (пользователь, группа эндпоинтов). Корзины разложены по
+ * полосам со своей блокировкой, так что пользователи из разных полос не ждут друг друга.
+ * В каждой полосе хранится не больше max-users-per-stripe корзин: при переполнении
+ * вытесняется та, к которой дольше всего не обращались. Вытесненный пользователь
+ * позже получит полную корзину, что для давно молчавшего клиента и так верно.
+ */
+@Component
+public class TokenBucketRateLimiter {
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final Map<RateLimitGroup, Limit> limits = new EnumMap<>(RateLimitGroup.class);
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    public TokenBucketRateLimiter(Environment environment,
+                                  @Value("${shareit.rate-limit.stripes:64}") int stripes,
+                                  @Value("${shareit.rate-limit.max-users-per-stripe:4096}") int maxUsersPerStripe) {
+        for (RateLimitGroup group : RateLimitGroup.values()) {
+            String prefix = "shareit.rate-limit." + group.getKey();
+            int capacity = environment.getProperty(prefix + ".capacity", Integer.class, group.getDefaultCapacity());
+            double perSecond = environment.getProperty(prefix + ".per-second", Double.class, group.getDefaultPerSecond());
+            if (capacity < 1 || perSecond <= 0) {
+                throw new IllegalArgumentException("некорректный лимит для группы " + group.getKey());
+            }
+            limits.put(group, new Limit(capacity, perSecond / NANOS_PER_SECOND));
+        }
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1) << 1);
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new Stripe(maxUsersPerStripe);
+        }
+        this.stripeMask = size - 1;
+    }
+
+    /**
+     * Забирает один токен. Возвращает 0, если запрос разрешен, иначе число наносекунд
+     * до появления следующего токена.
+     */
+    public long tryAcquire(int userId, RateLimitGroup group) {
+        Limit limit = limits.get(group);
+        long key = ((long) group.ordinal() << 32) | (userId & 0xffffffffL);
+        long now = System.nanoTime();
+        Stripe stripe = stripes[spread(key) & stripeMask];
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(limit.capacity, now);
+                stripe.buckets.put(key, bucket);
+            } else {
+                bucket.tokens = Math.min(limit.capacity, bucket.tokens + (now - bucket.updatedAt) * limit.tokensPerNano);
+                bucket.updatedAt = now;
+            }
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / limit.tokensPerNano);
+        }
+    }
+
+    private static int spread(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private record Limit(int capacity, double tokensPerNano) {
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long updatedAt;
+
+        private Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    private static final class Stripe {
+        private final Map<Long, Bucket> buckets;
+
+        private Stripe(int maxBuckets) {
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Bucket> eldest) {
+                    return size() > maxBuckets;
+                }
+            };
+        }
+    }
+}
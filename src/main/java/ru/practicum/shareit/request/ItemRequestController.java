@@ -1,12 +1,59 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.metrics.QueryBudget;
+import ru.practicum.shareit.ratelimit.RateLimit;
+import ru.practicum.shareit.ratelimit.RateLimitGroup;
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestPageDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import java.util.Collection;
 
-/**
- * TODO Sprint add-item-requests.
- */
 @RestController
 @RequestMapping(path = "/requests")
+@RequiredArgsConstructor
 public class ItemRequestController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private final ItemRequestService itemRequestService;
+
+    @PostMapping
+    @QueryBudget(3)
+    @ResponseStatus(HttpStatus.CREATED)
+    public ItemRequestDto create(@Validated @RequestBody ItemRequestCreateDto newRequest,
+                                 @RequestHeader(name = "X-Sharer-User-Id") int userId) {
+        return itemRequestService.create(newRequest, userId);
+    }
+
+    @GetMapping
+    @QueryBudget(3)
+    public Collection<ItemRequestDto> findOwn(@RequestHeader(name = "X-Sharer-User-Id") int userId) {
+        return itemRequestService.findOwn(userId);
+    }
+
+    @GetMapping("/all")
+    @QueryBudget(3)
+    @RateLimit(RateLimitGroup.LIST)
+    public ResponseEntity<Collection<ItemRequestDto>> findAll(@RequestHeader(name = "X-Sharer-User-Id") int userId,
+                                                              @RequestParam(name = "after", required = false) String after,
+                                                              @RequestParam(name = "size", required = false, defaultValue = "20") int size) {
+        ItemRequestPageDto page = itemRequestService.findAll(userId, after, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getRequests());
+    }
+
+    @GetMapping("/{requestId}")
+    @QueryBudget(3)
+    public ItemRequestDto findById(@PathVariable int requestId,
+                                   @RequestHeader(name = "X-Sharer-User-Id") int userId) {
+        return itemRequestService.findById(requestId, userId);
+    }
 }
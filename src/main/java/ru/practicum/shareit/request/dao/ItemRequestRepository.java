@@ -0,0 +1,47 @@
+package ru.practicum.shareit.request.dao;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemRequestRepository extends JpaRepository<ItemRequest, Integer> {
+
+    @Query("""
+            SELECT new ru.practicum.shareit.request.dto.ItemRequestDto(r.id, r.description, r.createdAt)
+            FROM ItemRequest r
+            WHERE r.id = :requestId
+            """)
+    Optional<ItemRequestDto> findDtoById(@Param("requestId") int requestId);
+
+    @Query("""
+            SELECT new ru.practicum.shareit.request.dto.ItemRequestDto(r.id, r.description, r.createdAt)
+            FROM ItemRequest r
+            WHERE r.requester.id = :requesterId
+            ORDER BY r.createdAt DESC, r.id DESC
+            """)
+    List<ItemRequestDto> findAllByRequester(@Param("requesterId") int requesterId);
+
+    /**
+     * Лента чужих запросов от новых к старым. Условие created <= afterCreated дублирует
+     * условие курсора, чтобы по нему можно было пройти индексом.
+     */
+    @Query("""
+            SELECT new ru.practicum.shareit.request.dto.ItemRequestDto(r.id, r.description, r.createdAt)
+            FROM ItemRequest r
+            WHERE r.requester.id <> :userId AND
+            r.createdAt <= :afterCreated AND
+            (r.createdAt < :afterCreated OR (r.createdAt = :afterCreated AND r.id < :afterId))
+            ORDER BY r.createdAt DESC, r.id DESC
+            """)
+    List<ItemRequestDto> findFeed(@Param("userId") int userId,
+                                  @Param("afterCreated") LocalDateTime afterCreated,
+                                  @Param("afterId") int afterId,
+                                  Pageable pageable);
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.request.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Вещь, добавленная в ответ на запрос.
+ */
+@Data
+@AllArgsConstructor
+public class ItemAnswerDto {
+    private Integer id;
+    private String name;
+    private Integer ownerId;
+    @JsonIgnore
+    private Integer requestId;
+}
@@ -1,19 +1,25 @@
 package ru.practicum.shareit.request.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
-import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
-/**
- * TODO Sprint add-item-requests.
- */
 @Data
 @Builder
+@AllArgsConstructor
 public class ItemRequestDto {
     private Integer id;
     private String description;
-    private User requester;
     private LocalDateTime created;
+    private List<ItemAnswerDto> items;
+
+    /**
+     * Конструктор для JPQL-проекции, ответы добавляются одним запросом на всю страницу.
+     */
+    public ItemRequestDto(Integer id, String description, LocalDateTime created) {
+        this(id, description, created, List.of());
+    }
 }
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Collection;
+
+@Data
+@AllArgsConstructor
+public class ItemRequestPageDto {
+    private Collection<ItemRequestDto> requests;
+    private String nextCursor;
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.request.mapper;
+
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+
+public class ItemRequestMapper {
+
+    public static ItemRequest toEntity(ItemRequestCreateDto createDto, User requester) {
+        return new ItemRequest(null, createDto.getDescription(), requester, LocalDateTime.now());
+    }
+
+    public static ItemRequestDto toDto(ItemRequest request) {
+        return new ItemRequestDto(request.getId(), request.getDescription(), request.getCreatedAt());
+    }
+}
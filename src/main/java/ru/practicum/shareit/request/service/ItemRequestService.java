@@ -0,0 +1,17 @@
+package ru.practicum.shareit.request.service;
+
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestPageDto;
+
+import java.util.Collection;
+
+public interface ItemRequestService {
+    ItemRequestDto create(ItemRequestCreateDto newRequest, int userId);
+
+    Collection<ItemRequestDto> findOwn(int userId);
+
+    ItemRequestPageDto findAll(int userId, String after, int size);
+
+    ItemRequestDto findById(int requestId, int userId);
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestPageDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.util.Cursor;
+import ru.practicum.shareit.util.Pages;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.request.mapper.ItemRequestMapper.toDto;
+import static ru.practicum.shareit.request.mapper.ItemRequestMapper.toEntity;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ItemRequestServiceImpl implements ItemRequestService {
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    @Override
+    @Transactional
+    public ItemRequestDto create(ItemRequestCreateDto newRequest, int userId) {
+        User requester = userRepository.findById(userId).orElseThrow(() ->
+                new NotFoundException("пользователь с id " + userId + " не найден"));
+        ItemRequest request = itemRequestRepository.save(toEntity(newRequest, requester));
+        log.debug("пользователь {} создал запрос {}", userId, request.getId());
+        return toDto(request);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<ItemRequestDto> findOwn(int userId) {
+        checkUserExists(userId);
+        return withAnswers(itemRequestRepository.findAllByRequester(userId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemRequestPageDto findAll(int userId, String after, int size) {
+        checkUserExists(userId);
+        Pages.checkSize(size);
+        Cursor cursor = Cursor.decode(after);
+        List<ItemRequestDto> requests = itemRequestRepository.findFeed(userId, cursor.getTime(), cursor.getId(),
+                Pages.withNext(size));
+        String nextCursor = null;
+        if (requests.size() > size) {
+            requests = requests.subList(0, size);
+            ItemRequestDto last = requests.get(size - 1);
+            nextCursor = new Cursor(last.getCreated(), last.getId()).encode();
+        }
+        return new ItemRequestPageDto(withAnswers(requests), nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemRequestDto findById(int requestId, int userId) {
+        checkUserExists(userId);
+        ItemRequestDto request = itemRequestRepository.findDtoById(requestId).orElseThrow(() ->
+                new NotFoundException("запрос с id " + requestId + " не найден"));
+        return withAnswers(List.of(request)).get(0);
+    }
+
+    /**
+     * Подставляет ответы всем запросам страницы, читая их одним запросом.
+     */
+    private List<ItemRequestDto> withAnswers(List<ItemRequestDto> requests) {
+        if (requests.isEmpty()) {
+            return requests;
+        }
+        List<Integer> requestIds = requests.stream().map(ItemRequestDto::getId).toList();
+        Map<Integer, List<ItemAnswerDto>> answers = itemRepository.findAnswersByRequestIds(requestIds)
+                .stream()
+                .collect(Collectors.groupingBy(ItemAnswerDto::getRequestId));
+        requests.forEach(request -> request.setItems(answers.getOrDefault(request.getId(), List.of())));
+        return requests;
+    }
+
+    private void checkUserExists(int userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("пользователь с id " + userId + " не найден");
+        }
+    }
+}
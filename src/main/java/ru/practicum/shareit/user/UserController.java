@@ -3,6 +3,7 @@ package ru.practicum.shareit.user;
 import lombok.RequiredArgsConstructor;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.metrics.QueryBudget;
 import ru.practicum.shareit.user.dto.UserCreateDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
@@ -20,26 +21,31 @@ public class UserController {
     private final UserService userService;
 
     @PostMapping
+    @QueryBudget(3)
     public UserDto create(@Validated @RequestBody UserCreateDto newUser) {
         return userService.create(newUser);
     }
 
     @PatchMapping("/{userId}")
+    @QueryBudget(6)
     public UserDto update(@Validated @RequestBody UserUpdateDto updatedUser, @PathVariable int userId) {
         return userService.update(updatedUser, userId);
     }
 
     @GetMapping
+    @QueryBudget(2)
     public Collection<UserDto> findAll() {
         return userService.findAll();
     }
 
     @GetMapping("/{userId}")
+    @QueryBudget(2)
     public UserDto findById(@PathVariable int userId) {
         return userService.findById(userId);
     }
 
     @DeleteMapping("/{userId}")
+    @QueryBudget(4)
     public void delete(@PathVariable int userId) {
         userService.delete(userId);
     }
@@ -1,9 +1,21 @@
 package ru.practicum.shareit.user.dao;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.user.User;
 
+import java.util.List;
+
 public interface UserRepository extends JpaRepository<User, Integer> {
 
+    boolean existsByEmailAndIdNot(String email, int id);
 
+    @Query("""
+            SELECT u FROM User u
+            WHERE u.id > :afterId
+            ORDER BY u.id
+            """)
+    List<User> findUsersAfter(@Param("afterId") int afterId, Pageable pageable);
 }
@@ -6,6 +6,7 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserShortDto;
 
 import java.util.Collection;
+import java.util.Locale;
 
 public class UserMapper {
     public static UserDto toDto(User user) {
@@ -25,6 +26,14 @@ public class UserMapper {
     }
 
     public static User toEntity(UserCreateDto createDto) {
-        return new User(0, createDto.getName(), createDto.getEmail());
+        return new User(null, createDto.getName(), normalizeEmail(createDto.getEmail()));
+    }
+
+    /**
+     * Email хранится без пробелов по краям и в нижнем регистре, чтобы уникальный индекс
+     * не пропускал один адрес, записанный по-разному: User@Mail.ru и user@mail.ru.
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
     }
 }
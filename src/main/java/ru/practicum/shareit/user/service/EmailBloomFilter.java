@@ -0,0 +1,86 @@
+package ru.practicum.shareit.user.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.mapper.UserMapper;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Фильтр Блума по email в нижнем регистре. Ответ false означает, что такого email
+ * точно нет в базе; ответ true требует проверки в базе. Удаленные и измененные email
+ * из фильтра не убираются и дают только лишние проверки.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class EmailBloomFilter {
+    private static final int BITS = 1 << 23;
+    private static final int HASHES = 5;
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final UserRepository userRepository;
+    private final AtomicLongArray words = new AtomicLongArray(BITS / Long.SIZE);
+
+    @PostConstruct
+    void load() {
+        int lastId = 0;
+        int loaded = 0;
+        List<User> batch;
+        do {
+            batch = userRepository.findUsersAfter(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (User user : batch) {
+                add(user.getEmail());
+                lastId = user.getId();
+            }
+            loaded += batch.size();
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        log.info("фильтр email заполнен: {} пользователей", loaded);
+    }
+
+    public void add(String email) {
+        long hash = hash(email);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = bitIndex(hash, i);
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+            long current;
+            do {
+                current = words.get(word);
+            } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String email) {
+        long hash = hash(email);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = bitIndex(hash, i);
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int bitIndex(long hash, int i) {
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        return ((first + i * second) & Integer.MAX_VALUE) % BITS;
+    }
+
+    private static long hash(String email) {
+        String normalized = UserMapper.normalizeEmail(email);
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < normalized.length(); i++) {
+            hash ^= normalized.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -1,10 +1,17 @@
 package ru.practicum.shareit.user.service;
 
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.EmailAlreadyExists;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.dto.UserCreateDto;
@@ -12,7 +19,11 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 
 import java.util.Collection;
+import java.util.Locale;
 
+import static ru.practicum.shareit.item.service.ItemServiceImpl.ITEM_DETAILS_CACHE;
+import static ru.practicum.shareit.item.service.ItemOccupancyCache.ITEM_OCCUPANCY_CACHE;
+import static ru.practicum.shareit.user.mapper.UserMapper.normalizeEmail;
 import static ru.practicum.shareit.user.mapper.UserMapper.toDto;
 import static ru.practicum.shareit.user.mapper.UserMapper.toEntity;
 import static ru.practicum.shareit.util.Updater.runIfNotNull;
@@ -21,30 +32,50 @@ import static ru.practicum.shareit.util.Updater.runIfNotNull;
 @RequiredArgsConstructor
 @Slf4j
 public class UserService {
+    private static final String EMAIL_CONSTRAINT = "uq_user_email";
     private final UserRepository userRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final EmailBloomFilter emailBloomFilter;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ItemRepository itemRepository;
 
     public UserDto create(final UserCreateDto newUser) {
         log.trace("запрос на создание пользователя");
-        doesEmailExists(newUser.getEmail(), 0);
         User user = toEntity(newUser);
+        doesEmailExists(user.getEmail(), 0);
+        user = saveUnique(user);
         log.debug("пользователь добавлен{}", user);
-        return toDto(userRepository.save(user));
+        return toDto(user);
     }
 
+    // имя автора хранится в закешированных комментариях
+    @CacheEvict(cacheNames = ITEM_DETAILS_CACHE, allEntries = true)
     public UserDto update(final UserUpdateDto updatedUser, final int id) {
         User oldUser = getUserById(id);
-        doesEmailExists(updatedUser.getEmail(), id);
+        boolean renamed = updatedUser.getName() != null && !updatedUser.getName().equals(oldUser.getName());
+        String email = normalizeEmail(updatedUser.getEmail());
+        doesEmailExists(email, id);
         runIfNotNull(updatedUser.getName(), () -> oldUser.setName(updatedUser.getName()));
-        runIfNotNull(updatedUser.getEmail(), () -> oldUser.setEmail(updatedUser.getEmail()));
-        userRepository.save(oldUser);
+        runIfNotNull(email, () -> oldUser.setEmail(email));
+        saveUnique(oldUser);
+        if (renamed) {
+            itemRepository.incrementVersionOfItemsCommentedBy(id);
+        }
         log.debug("пользователь обновлен {}", oldUser);
         return toDto(oldUser);
     }
 
+    // бронирования пользователя тоже удаляет каскад, поэтому сбрасывается и занятость вещей
+    @CacheEvict(cacheNames = {ITEM_DETAILS_CACHE, ITEM_OCCUPANCY_CACHE}, allEntries = true)
     public void delete(int id) {
         getUserById(id);
+        // каскад удалит отзывы пользователя на чужие вещи, их ответы GET /items/{itemId} изменятся
+        itemRepository.incrementVersionOfItemsCommentedBy(id);
         log.debug("пользователь {} удален", id);
         userRepository.deleteById(id);
+        // вещи пользователя удаляет каскад в базе, мимо Hibernate, поэтому их нужно убрать из кеша второго уровня
+        entityManagerFactory.getCache().evict(Item.class);
+        itemSearchIndex.removeByOwner(id);
     }
 
     public Collection<UserDto> findAll() {
@@ -62,8 +93,26 @@ public class UserService {
     }
 
     private void doesEmailExists(final String email, final int userId) {
-        if (userRepository.findAll().stream().anyMatch(user1 -> user1.getEmail().equals(email) && user1.getId() != userId)) {
+        if (email == null || !emailBloomFilter.mightContain(email)) {
+            return;
+        }
+        if (userRepository.existsByEmailAndIdNot(email, userId)) {
             throw new EmailAlreadyExists(String.format("Email %s уже существует", email));
         }
     }
+
+    private User saveUnique(final User user) {
+        final User saved;
+        try {
+            saved = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException exception) {
+            String cause = String.valueOf(NestedExceptionUtils.getMostSpecificCause(exception).getMessage());
+            if (cause.toLowerCase(Locale.ROOT).contains(EMAIL_CONSTRAINT)) {
+                throw new EmailAlreadyExists(String.format("Email %s уже существует", user.getEmail()));
+            }
+            throw exception;
+        }
+        emailBloomFilter.add(saved.getEmail());
+        return saved;
+    }
 }
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция в списке, отсортированном по (время DESC, id DESC): бронирования по началу,
+ * запросы по дате создания. Списки, упорядоченные только по возрастанию id (вещи владельца),
+ * используют курсор без времени. Клиенту отдается в виде непрозрачной строки.
+ */
+@Getter
+@AllArgsConstructor
+public class Cursor {
+    public static final Cursor FIRST = new Cursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Integer.MAX_VALUE);
+    private static final String SEPARATOR = "_";
+    private static final LocalDateTime NO_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final LocalDateTime time;
+    private final int id;
+
+    public static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("некорректный курсор " + cursor);
+            }
+            return new Cursor(LocalDateTime.parse(parts[0]), Integer.parseInt(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException exception) {
+            throw new IllegalArgumentException("некорректный курсор " + cursor);
+        }
+    }
+
+    public static Cursor ofId(int id) {
+        return new Cursor(NO_TIME, id);
+    }
+
+    /**
+     * Id, после которого продолжается список по возрастанию id; без курсора список начинается сначала.
+     */
+    public static int decodeId(String cursor) {
+        return cursor == null || cursor.isBlank() ? 0 : decode(cursor).getId();
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((time + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.IdempotencyConflictException;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Хранит первый успешный ответ на запрос с заголовком Idempotency-Key.
+ * Ключ действует в пределах пользователя и операции, хранилище ограничено по размеру
+ * и очищается по истечении ttl. Повторы, пришедшие пока первый запрос еще выполняется,
+ * ждут его результата, а не выполняют операцию второй раз. Неуспешный запрос ключ не
+ * занимает: его можно повторить с тем же ключом.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+    public static final String HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<String, Entry> entries;
+    private final long waitTimeoutMillis;
+
+    public IdempotencyStore(@Value("${shareit.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${shareit.idempotency.max-keys:100000}") long maxKeys,
+                            @Value("${shareit.idempotency.wait-timeout:30s}") Duration waitTimeout) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(ttl)
+                .build();
+        this.waitTimeoutMillis = waitTimeout.toMillis();
+    }
+
+    /**
+     * Выполняет action один раз на ключ. Запрос без ключа выполняется как обычно.
+     * request сравнивается через equals: повтор ключа с другим телом запроса отклоняется.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, int userId, String operation, Object request, Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("некорректный " + HEADER);
+        }
+        String storeKey = userId + ":" + operation + ":" + key;
+        Entry created = new Entry(request);
+        Entry existing = entries.asMap().putIfAbsent(storeKey, created);
+        if (existing == null) {
+            return run(storeKey, created, action);
+        }
+        if (!Objects.equals(existing.request, request)) {
+            throw new IdempotencyConflictException(HEADER + " " + key + " уже использован с другим запросом");
+        }
+        log.debug("повтор запроса {} пользователя {} с ключом {}", operation, userId, key);
+        return (T) await(key, existing);
+    }
+
+    private <T> T run(String storeKey, Entry entry, Supplier<T> action) {
+        try {
+            T result = action.get();
+            entry.result.complete(result);
+            return result;
+        } catch (Throwable exception) {
+            // Error (например, OutOfMemoryError) тоже освобождает ключ, иначе повторы ждали бы
+            // незавершенный результат до таймаута, пока запись не вытеснится по ttl
+            entries.asMap().remove(storeKey, entry);
+            entry.result.completeExceptionally(exception);
+            throw exception;
+        }
+    }
+
+    private Object await(String key, Entry entry) {
+        try {
+            return entry.result.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (exception.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(exception.getCause());
+        } catch (TimeoutException exception) {
+            throw new IdempotencyConflictException("запрос с " + HEADER + " " + key + " еще выполняется");
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("запрос с " + HEADER + " " + key + " еще выполняется");
+        }
+    }
+
+    private static final class Entry {
+        private final Object request;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private Entry(Object request) {
+            this.request = request;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.util;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Общие правила постраничной выдачи: размер страницы по умолчанию и верхняя граница,
+ * чтобы ни один список не читался из базы целиком.
+ */
+public class Pages {
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    public static int checkSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_SIZE;
+        }
+        if (size <= 0 || size > MAX_SIZE) {
+            throw new IllegalArgumentException(String.format("размер страницы должен быть от 1 до %d: %d", MAX_SIZE, size));
+        }
+        return size;
+    }
+
+    /**
+     * Запрашивает на одну запись больше, чтобы узнать, есть ли следующая страница.
+     */
+    public static Pageable withNext(int size) {
+        return PageRequest.of(0, size + 1);
+    }
+}
@@ -20,6 +20,7 @@ CREATE TABLE IF NOT EXISTS item (
   available BOOLEAN NOT NULL DEFAULT TRUE,
   owner_id INTEGER NOT NULL,
   request_id INTEGER,
+  version BIGINT NOT NULL DEFAULT 0,
   CONSTRAINT fk_item_user FOREIGN KEY (owner_id) REFERENCES users(id) ON DELETE CASCADE,
   CONSTRAINT fk_item_request FOREIGN KEY (request_id) REFERENCES request(id) ON DELETE SET NULL
 );
@@ -31,12 +32,32 @@ CREATE TABLE IF NOT EXISTS booking (
   status VARCHAR(20) NOT NULL,
   booker_id INTEGER NOT NULL,
   item_id INTEGER NOT NULL,
+  version BIGINT NOT NULL DEFAULT 0,
   CONSTRAINT fk_booking_user FOREIGN KEY (booker_id) REFERENCES users(id) ON DELETE CASCADE,
   CONSTRAINT fk_booking_item FOREIGN KEY (item_id) REFERENCES item(id) ON DELETE CASCADE,
   CONSTRAINT chk_booking_dates CHECK (end_at > start_at),
   CONSTRAINT chk_booking_status CHECK (status IN ('WAITING', 'APPROVED', 'REJECTED', 'CANCELED'))
 );
 
+-- идентификаторы бронирований выдаются пачками по 100, чтобы Hibernate мог пакетировать вставки
+-- в базе, где бронирования уже есть, последовательность нужно сдвинуть за наибольший id в booking
+-- и booking_archive (в PostgreSQL через setval), иначе приложение не запустится: см. BookingSequenceCheck
+CREATE SEQUENCE IF NOT EXISTS booking_seq START WITH 1 INCREMENT BY 100;
+
+-- завершенные одобренные бронирования, перенесенные из booking фоновой задачей
+CREATE TABLE IF NOT EXISTS booking_archive (
+  id INTEGER PRIMARY KEY,
+  start_at TIMESTAMP NOT NULL,
+  end_at TIMESTAMP NOT NULL,
+  status VARCHAR(20) NOT NULL,
+  booker_id INTEGER NOT NULL,
+  item_id INTEGER NOT NULL,
+  version BIGINT NOT NULL DEFAULT 0,
+  archived_at TIMESTAMP NOT NULL,
+  CONSTRAINT fk_booking_archive_user FOREIGN KEY (booker_id) REFERENCES users(id) ON DELETE CASCADE,
+  CONSTRAINT fk_booking_archive_item FOREIGN KEY (item_id) REFERENCES item(id) ON DELETE CASCADE
+);
+
 CREATE TABLE IF NOT EXISTS comments (
   id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
   text VARCHAR(1000) NOT NULL,
@@ -45,4 +66,27 @@ CREATE TABLE IF NOT EXISTS comments (
   created_at TIMESTAMP NOT NULL,
   CONSTRAINT fk_comment_user FOREIGN KEY (author_id) REFERENCES users(id) ON DELETE CASCADE,
   CONSTRAINT fk_comment_item FOREIGN KEY (item_id) REFERENCES item(id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+-- версии для баз, созданных до их появления
+ALTER TABLE item ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS idx_item_owner ON item (owner_id);
+CREATE INDEX IF NOT EXISTS idx_item_request ON item (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_request_requester_created ON request (requester_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_request_created ON request (created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_booking_booker_start ON booking (booker_id, start_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_booking_item_start ON booking (item_id, start_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_booking_item_status_end ON booking (item_id, status, end_at);
+CREATE INDEX IF NOT EXISTS idx_booking_item_status_start ON booking (item_id, status, start_at);
+CREATE INDEX IF NOT EXISTS idx_booking_status_end ON booking (status, end_at);
+
+CREATE INDEX IF NOT EXISTS idx_booking_archive_booker_start ON booking_archive (booker_id, start_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_booking_archive_item_start ON booking_archive (item_id, start_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_booking_archive_item_end ON booking_archive (item_id, end_at);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
+CREATE INDEX IF NOT EXISTS idx_comments_author ON comments (author_id);
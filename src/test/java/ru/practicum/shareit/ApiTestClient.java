@@ -0,0 +1,84 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Общие шаги MockMvc-тестов: пользователи и вещи создаются через API, а бронирования
+ * в прошлом, которые API создать не даст, сохраняются напрямую в репозиторий.
+ * Подключается в тест через @Import.
+ */
+@TestComponent
+@RequiredArgsConstructor
+class ApiTestClient {
+    static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final MockMvc mockMvc;
+    private final ObjectMapper objectMapper;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+
+    int createUser(String name) throws Exception {
+        return perform(post("/users"), null, Map.of("name", name, "email", name + System.nanoTime() + "@mail.ru"));
+    }
+
+    int createItem(int ownerId, String name) throws Exception {
+        return perform(post("/items"), ownerId, Map.of("name", name, "description", name, "available", true));
+    }
+
+    int saveBooking(int itemId, int bookerId, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(itemRepository.findById(itemId).orElseThrow())
+                .booker(userRepository.findById(bookerId).orElseThrow())
+                .status(status)
+                .build()).getId();
+    }
+
+    /**
+     * Выполняет запрос, ожидая успешный ответ, и возвращает id из тела (0, если тела нет).
+     */
+    int perform(MockHttpServletRequestBuilder request, Integer userId, Object body) throws Exception {
+        JsonNode response = read(request, userId, body);
+        return response == null ? 0 : response.path("id").asInt();
+    }
+
+    JsonNode read(MockHttpServletRequestBuilder request, Integer userId, Object body) throws Exception {
+        String response = send(request, userId, body)
+                .andExpect(status().is2xxSuccessful())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+        return response.isEmpty() ? null : objectMapper.readTree(response);
+    }
+
+    ResultActions send(MockHttpServletRequestBuilder request, Integer userId, Object body) throws Exception {
+        if (userId != null) {
+            request.header(USER_HEADER, userId);
+        }
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(body));
+        }
+        return mockMvc.perform(request);
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.dao.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingArchiver;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Переносит старые бронирования в архив и проверяет, что списки ALL и PAST
+ * по-прежнему отдают их в порядке start DESC вместе с горячими.
+ */
+@SpringBootTest(properties = "shareit.archive.after=30d")
+@AutoConfigureMockMvc
+@Import(ApiTestClient.class)
+class BookingArchiveTests {
+
+    @Autowired
+    private ApiTestClient client;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+    @Autowired
+    private BookingArchiver bookingArchiver;
+
+    @Test
+    void archivedBookingsStayInPastAndAllLists() throws Exception {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        int ownerId = client.createUser("owner");
+        int bookerId = client.createUser("booker");
+        int itemId = client.createItem(ownerId, "Дрель");
+        List<Integer> oldIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            oldIds.add(client.saveBooking(itemId, bookerId, now.minusDays(100 - i), now.minusDays(99 - i), BookingStatus.APPROVED));
+        }
+        int recentId = client.saveBooking(itemId, bookerId, now.minusDays(5), now.minusDays(4), BookingStatus.APPROVED);
+
+        bookingArchiver.archive();
+
+        assertTrue(oldIds.stream().allMatch(id -> archivedBookingRepository.existsById(id)));
+        assertTrue(oldIds.stream().noneMatch(id -> bookingRepository.existsById(id)));
+        assertTrue(bookingRepository.existsById(recentId));
+
+        List<Integer> expected = List.of(recentId, oldIds.get(2), oldIds.get(1), oldIds.get(0));
+        assertEquals(expected, ids(client.read(get("/bookings").param("state", "PAST"), bookerId, null)));
+        assertEquals(expected, ids(client.read(get("/bookings/owner").param("state", "ALL"), ownerId, null)));
+        assertEquals(expected.subList(0, 2), ids(client.read(get("/bookings").param("state", "ALL").param("size", "2"), bookerId, null)));
+        assertEquals(oldIds.get(0), client.perform(get("/bookings/{bookingId}", oldIds.get(0)), bookerId, null));
+
+        JsonNode summary = client.read(get("/bookings/summary"), bookerId, null);
+        assertEquals(4, summary.path("all").asInt());
+        assertEquals(4, summary.path("past").asInt());
+        assertEquals(0, summary.path("future").asInt());
+    }
+
+    private static List<Integer> ids(JsonNode bookings) {
+        List<Integer> ids = new ArrayList<>();
+        bookings.forEach(booking -> ids.add(booking.path("id").asInt()));
+        return ids;
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Пакетные операции с бронированиями: ошибка в одной записи не мешает остальным,
+ * а ответ сообщает результат по каждой записи.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(ApiTestClient.class)
+class BookingBatchTests {
+
+    @Autowired
+    private ApiTestClient client;
+
+    @Test
+    void createReportsEachEntry() throws Exception {
+        LocalDateTime day = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+        int ownerId = client.createUser("owner");
+        int bookerId = client.createUser("booker");
+        int itemId = client.createItem(ownerId, "Лодка");
+        int hiddenId = client.createItem(ownerId, "Весла");
+        client.perform(patch("/items/{itemId}", hiddenId), ownerId, Map.of("available", false));
+        client.saveBooking(itemId, bookerId, day, day.plusDays(1), BookingStatus.APPROVED);
+
+        JsonNode results = client.read(post("/bookings/batch"), bookerId, Arrays.asList(
+                booking(itemId, day.plusDays(2), day.plusDays(3)),
+                booking(itemId, day.plusDays(3), day.plusDays(2)),
+                booking(Integer.MAX_VALUE, day, day.plusDays(1)),
+                booking(hiddenId, day, day.plusDays(1)),
+                booking(itemId, day.plusHours(12), day.plusDays(2)),
+                null));
+
+        assertEquals(6, results.size());
+        JsonNode created = results.get(0);
+        assertEquals(0, created.path("index").asInt());
+        assertEquals("WAITING", created.path("booking").path("status").asText());
+        assertTrue(created.path("error").isNull());
+        for (int i = 1; i < results.size(); i++) {
+            assertEquals(i, results.get(i).path("index").asInt());
+            assertTrue(results.get(i).path("booking").isNull());
+            assertFalse(results.get(i).path("error").asText().isEmpty());
+        }
+        assertTrue(results.get(1).path("error").asText().contains("раньше конца"));
+        assertTrue(results.get(2).path("error").asText().contains("не найден"));
+        assertTrue(results.get(3).path("error").asText().contains("уже занят"));
+        assertTrue(results.get(4).path("error").asText().contains("уже забронирован"));
+        assertEquals("пустая запись", results.get(5).path("error").asText());
+    }
+
+    @Test
+    void decideApprovesNonOverlappingAndReportsTheRest() throws Exception {
+        LocalDateTime day = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+        int ownerId = client.createUser("owner");
+        int otherOwnerId = client.createUser("other");
+        int bookerId = client.createUser("booker");
+        int itemId = client.createItem(ownerId, "Лодка");
+        int otherItemId = client.createItem(otherOwnerId, "Весла");
+        int first = client.saveBooking(itemId, bookerId, day, day.plusDays(2), BookingStatus.WAITING);
+        int overlapping = client.saveBooking(itemId, bookerId, day.plusDays(1), day.plusDays(3), BookingStatus.WAITING);
+        int later = client.saveBooking(itemId, bookerId, day.plusDays(2), day.plusDays(3), BookingStatus.WAITING);
+        int rejected = client.saveBooking(itemId, bookerId, day.plusDays(5), day.plusDays(6), BookingStatus.REJECTED);
+        int foreign = client.saveBooking(otherItemId, bookerId, day, day.plusDays(1), BookingStatus.WAITING);
+
+        JsonNode result = client.read(patch("/bookings/batch").param("approved", "true"), ownerId,
+                List.of(overlapping, first, later, rejected, foreign, Integer.MAX_VALUE));
+
+        assertEquals(List.of(first, later), ids(result.path("changed")));
+        JsonNode refused = result.path("refused");
+        assertEquals(4, refused.size());
+        assertTrue(refused.path(String.valueOf(overlapping)).asText().contains("уже забронирован"));
+        assertTrue(refused.path(String.valueOf(rejected)).asText().contains("REJECTED"));
+        assertTrue(refused.path(String.valueOf(foreign)).asText().contains("не является владельцем"));
+        assertTrue(refused.path(String.valueOf(Integer.MAX_VALUE)).asText().contains("не найдено"));
+    }
+
+    private static Map<String, Object> booking(int itemId, LocalDateTime start, LocalDateTime end) {
+        return Map.of("itemId", itemId, "start", start, "end", end);
+    }
+
+    private static List<Integer> ids(JsonNode values) {
+        List<Integer> ids = new ArrayList<>();
+        values.forEach(value -> ids.add(value.asInt()));
+        return ids;
+    }
+}
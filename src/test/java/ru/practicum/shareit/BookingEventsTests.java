@@ -0,0 +1,79 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.event.BookingEventBroadcaster;
+import ru.practicum.shareit.booking.event.BookingStatusEvent;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Подписка на статусы бронирований: лимит подписок пользователя и событие overflow
+ * при переполнении буфера медленного подписчика.
+ */
+@SpringBootTest(properties = {
+        "shareit.sse.buffer-size=2",
+        "shareit.sse.max-subscriptions-per-user=2",
+        "shareit.sse.threads=1"
+})
+@AutoConfigureMockMvc
+class BookingEventsTests {
+    private static final Duration WAIT = Duration.ofSeconds(10);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private BookingEventBroadcaster broadcaster;
+
+    @Test
+    void subscriptionsOverLimitGetTooManyRequests() throws Exception {
+        int userId = 1_000_001;
+        subscribe(userId);
+        subscribe(userId);
+
+        mockMvc.perform(get("/bookings/subscribe")
+                        .header(ApiTestClient.USER_HEADER, userId)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void slowSubscriberGetsOverflowAndLatestEvent() throws Exception {
+        int userId = 1_000_002;
+        MockHttpServletResponse response = subscribe(userId);
+        int last = 1000;
+        for (int bookingId = 1; bookingId <= last; bookingId++) {
+            broadcaster.onStatusChange(new BookingStatusEvent(bookingId, 1, userId, 1_000_003, BookingStatus.APPROVED));
+        }
+
+        long deadline = System.nanoTime() + WAIT.toNanos();
+        while (!response.getContentAsString().contains("id:" + last + "\n") && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        String stream = response.getContentAsString();
+        assertTrue(stream.contains("id:" + last + "\n"), "последнее событие не доставлено");
+        assertTrue(stream.contains("event:overflow\n"), "нет события overflow");
+    }
+
+    private MockHttpServletResponse subscribe(int userId) throws Exception {
+        return mockMvc.perform(get("/bookings/subscribe").header(ApiTestClient.USER_HEADER, userId))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Выгрузка бронирований владельца: ошибки проверки пользователя приходят обычным ответом
+ * с кодом и JSON, а не обрывом уже начатого потока.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(ApiTestClient.class)
+class BookingExportTests {
+
+    @Autowired
+    private ApiTestClient client;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportWritesOwnerBookingsNewestFirst() throws Exception {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        int ownerId = client.createUser("owner");
+        int bookerId = client.createUser("booker");
+        int itemId = client.createItem(ownerId, "Дрель");
+        int older = client.saveBooking(itemId, bookerId, now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+        int newer = client.saveBooking(itemId, bookerId, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+
+        MvcResult started = client.send(get("/bookings/owner/export"), ownerId, null)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        List<Integer> ids = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            ids.add(objectMapper.readTree(line).path("id").asInt());
+        }
+        assertEquals(List.of(newer, older), ids);
+    }
+
+    @Test
+    void exportRejectsUnknownUserBeforeStreaming() throws Exception {
+        client.send(get("/bookings/owner/export"), Integer.MAX_VALUE, null)
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.name").exists());
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Бронирование, пересекающееся с уже одобренным, отклоняется с 409 и при создании,
+ * и при одобрении; стык интервалов пересечением не считается.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(ApiTestClient.class)
+class BookingOverlapTests {
+
+    @Autowired
+    private ApiTestClient client;
+
+    @Test
+    void rejectsOverlapOnCreateAndApprove() throws Exception {
+        LocalDateTime day = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+        int ownerId = client.createUser("owner");
+        int bookerId = client.createUser("booker");
+        int otherBookerId = client.createUser("other");
+        int itemId = client.createItem(ownerId, "Палатка");
+
+        int approved = create(itemId, bookerId, day, day.plusDays(2));
+        int waiting = create(itemId, otherBookerId, day.plusDays(1), day.plusDays(3));
+        approve(approved, ownerId).andExpect(status().isOk());
+
+        book(itemId, otherBookerId, day.plusDays(1), day.plusDays(2))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.name").value("conflict"));
+        approve(waiting, ownerId).andExpect(status().isConflict());
+        approve(waiting, ownerId, false).andExpect(status().isOk());
+
+        int adjacent = create(itemId, otherBookerId, day.plusDays(2), day.plusDays(4));
+        approve(adjacent, ownerId).andExpect(status().isOk());
+    }
+
+    private int create(int itemId, int bookerId, LocalDateTime start, LocalDateTime end) throws Exception {
+        return client.perform(post("/bookings"), bookerId, Map.of("itemId", itemId, "start", start, "end", end));
+    }
+
+    private ResultActions book(int itemId, int bookerId, LocalDateTime start, LocalDateTime end) throws Exception {
+        return client.send(post("/bookings"), bookerId, Map.of("itemId", itemId, "start", start, "end", end));
+    }
+
+    private ResultActions approve(int bookingId, int ownerId) throws Exception {
+        return approve(bookingId, ownerId, true);
+    }
+
+    private ResultActions approve(int bookingId, int ownerId, boolean approved) throws Exception {
+        return client.send(patch("/bookings/{bookingId}", bookingId).param("approved", String.valueOf(approved)),
+                ownerId, null);
+    }
+}
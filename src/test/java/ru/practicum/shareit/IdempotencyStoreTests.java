@@ -0,0 +1,91 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.IdempotencyConflictException;
+import ru.practicum.shareit.util.IdempotencyStore;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdempotencyStoreTests {
+    private final IdempotencyStore store = new IdempotencyStore(Duration.ofMinutes(1), 100, Duration.ofSeconds(5));
+
+    @Test
+    void replaysFirstResponse() {
+        AtomicInteger calls = new AtomicInteger();
+
+        int first = store.execute("key", 1, "op", "body", calls::incrementAndGet);
+        int second = store.execute("key", 1, "op", "body", calls::incrementAndGet);
+        int otherUser = store.execute("key", 2, "op", "body", calls::incrementAndGet);
+
+        assertEquals(1, first);
+        assertEquals(1, second);
+        assertEquals(2, otherUser);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void rejectsKeyReusedWithAnotherRequest() {
+        store.execute("key", 1, "op", "body", () -> 1);
+
+        assertThrows(IdempotencyConflictException.class, () -> store.execute("key", 1, "op", "other", () -> 2));
+    }
+
+    @Test
+    void failedRequestDoesNotOccupyKey() {
+        assertThrows(IllegalStateException.class, () -> store.execute("key", 1, "op", "body", () -> {
+            throw new IllegalStateException();
+        }));
+
+        assertEquals(2, store.<Integer>execute("key", 1, "op", "body", () -> 2));
+    }
+
+    @Test
+    void errorDoesNotOccupyKey() {
+        assertThrows(AssertionError.class, () -> store.execute("key", 1, "op", "body", () -> {
+            throw new AssertionError();
+        }));
+
+        assertEquals(2, store.<Integer>execute("key", 1, "op", "body", () -> 2));
+    }
+
+    @Test
+    void collapsesConcurrentDuplicates() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = executor.submit(() -> store.execute("key", 1, "op", "body", () -> {
+                started.countDown();
+                await(release);
+                return calls.incrementAndGet();
+            }));
+            started.await(5, TimeUnit.SECONDS);
+            Future<Integer> duplicate = executor.submit(() -> store.execute("key", 1, "op", "body", calls::incrementAndGet));
+            release.countDown();
+
+            assertEquals(1, first.get(5, TimeUnit.SECONDS));
+            assertEquals(1, duplicate.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
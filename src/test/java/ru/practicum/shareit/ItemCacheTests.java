@@ -0,0 +1,125 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.service.ItemOccupancyCache;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Закешированные ответы сбрасываются записями, от которых они зависят, и следующий
+ * запрос видит изменения.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(ApiTestClient.class)
+class ItemCacheTests {
+
+    @Autowired
+    private ApiTestClient client;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void itemDetailsAreEvictedByItemCommentAndAuthorChanges() throws Exception {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Cache details = cacheManager.getCache(ItemServiceImpl.ITEM_DETAILS_CACHE);
+        int ownerId = client.createUser("owner");
+        int bookerId = client.createUser("booker");
+        int itemId = client.createItem(ownerId, "Байдарка");
+        client.saveBooking(itemId, bookerId, now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+
+        assertEquals("Байдарка", details(itemId).path("name").asText());
+        assertNotNull(details.get(itemId));
+
+        client.perform(patch("/items/{itemId}", itemId), ownerId, Map.of("name", "Каяк"));
+        assertNull(details.get(itemId));
+        assertEquals("Каяк", details(itemId).path("name").asText());
+
+        client.perform(post("/items/{itemId}/comment", itemId), bookerId, Map.of("text", "легкий"));
+        assertNull(details.get(itemId));
+        JsonNode comment = details(itemId).path("comments").get(0);
+        assertEquals("легкий", comment.path("text").asText());
+        assertEquals("booker", comment.path("authorName").asText());
+
+        client.perform(patch("/users/{userId}", bookerId), null, Map.of("name", "renamed"));
+        assertNull(details.get(itemId));
+        assertEquals("renamed", details(itemId).path("comments").get(0).path("authorName").asText());
+    }
+
+    @Test
+    void itemDetailsAreEvictedAfterCommit() throws Exception {
+        Cache details = cacheManager.getCache(ItemServiceImpl.ITEM_DETAILS_CACHE);
+        int ownerId = client.createUser("owner");
+        int itemId = client.createItem(ownerId, "Байдарка");
+        details(itemId);
+        ItemUpdateDto update = new ItemUpdateDto();
+        update.setName("Каяк");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            itemService.update(update, itemId, ownerId);
+            // до коммита параллельный запрос прочитал бы старую вещь, поэтому запись еще в кеше
+            assertNotNull(details.get(itemId));
+        });
+        assertNull(details.get(itemId));
+        assertEquals("Каяк", details(itemId).path("name").asText());
+    }
+
+    @Test
+    void occupancyIsEvictedByBookingStatusChanges() throws Exception {
+        LocalDateTime day = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+        Cache occupancy = cacheManager.getCache(ItemOccupancyCache.ITEM_OCCUPANCY_CACHE);
+        int ownerId = client.createUser("owner");
+        int bookerId = client.createUser("booker");
+        int itemId = client.createItem(ownerId, "Байдарка");
+
+        assertEquals(0, availability(itemId, day, day.plusDays(5)).path("occupied").size());
+        assertNotNull(occupancy.get(itemId));
+
+        int bookingId = client.perform(post("/bookings"), bookerId,
+                Map.of("itemId", itemId, "start", day.plusDays(1), "end", day.plusDays(2)));
+        assertNull(occupancy.get(itemId));
+        JsonNode occupied = availability(itemId, day, day.plusDays(5)).path("occupied");
+        assertEquals(1, occupied.size());
+        assertEquals(day.plusDays(1), LocalDateTime.parse(occupied.get(0).path("start").asText()));
+
+        client.perform(patch("/bookings/{bookingId}", bookingId).param("approved", "false"), ownerId, null);
+        assertNull(occupancy.get(itemId));
+        assertEquals(0, availability(itemId, day, day.plusDays(5)).path("occupied").size());
+    }
+
+    private JsonNode availability(int itemId, LocalDateTime from, LocalDateTime to) throws Exception {
+        return client.read(get("/items/{itemId}/availability", itemId)
+                .param("from", from.toString())
+                .param("to", to.toString()), null, null);
+    }
+
+    private JsonNode details(int itemId) throws Exception {
+        return client.read(get("/items/{itemId}", itemId), null, null);
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Поиск по триграммному индексу совпадает с поиском подстроки без учета регистра
+ * для кириллицы и латиницы и не видит недоступные вещи.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(ApiTestClient.class)
+class ItemSearchTests {
+
+    @Autowired
+    private ApiTestClient client;
+
+    @Test
+    void findsSubstringsIgnoringCase() throws Exception {
+        int ownerId = client.createUser("owner");
+        int requesterId = client.createUser("requester");
+        int requestId = client.perform(post("/requests"), requesterId, Map.of("description", "нужен штангенциркуль"));
+        int caliper = client.perform(post("/items"), ownerId, Map.of("name", "Штангенциркуль",
+                "description", "Цифровой MITUTOYO", "available", true, "requestId", requestId));
+        int gauge = client.perform(post("/items"), ownerId, Map.of("name", "Микрометр Mitutoyo",
+                "description", "гладкий, с поверкой", "available", true));
+        client.perform(post("/items"), ownerId, Map.of("name", "Штангенциркуль старый",
+                "description", "сломан", "available", false));
+
+        assertEquals(List.of(caliper), ids(search("шТАНГЕНциркуль")));
+        assertEquals(List.of(caliper), ids(search("генцирк")));
+        assertEquals(List.of(gauge, caliper), ids(search("mitutoyo")));
+        assertEquals(List.of(gauge), ids(search("ПОВЕРК")));
+        assertEquals(List.of(), ids(search("   ")));
+        assertEquals(requestId, search("генцирк").get(0).path("requestId").asInt());
+
+        client.perform(patch("/items/{itemId}", gauge), ownerId, Map.of("available", false));
+        assertEquals(List.of(caliper), ids(search("mitutoyo")));
+    }
+
+    private JsonNode search(String text) throws Exception {
+        return client.read(get("/items/search").param("text", text), 1, null);
+    }
+
+    private static List<Integer> ids(JsonNode items) {
+        List<Integer> ids = new ArrayList<>();
+        items.forEach(item -> ids.add(item.path("id").asInt()));
+        return ids;
+    }
+}
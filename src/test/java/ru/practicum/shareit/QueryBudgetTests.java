@@ -0,0 +1,90 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.metrics.QueryBudgetViolations;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Проходит по всем эндпоинтам с @QueryBudget на данных, где есть несколько бронирований и отзывов,
+ * и падает, если хоть один из них выполнил больше SQL-запросов, чем объявлено.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(ApiTestClient.class)
+class QueryBudgetTests {
+    private static final int BOOKERS = 3;
+
+    @Autowired
+    private ApiTestClient client;
+    @Autowired
+    private QueryBudgetViolations violations;
+
+    @Test
+    void endpointsStayWithinQueryBudget() throws Exception {
+        violations.clear();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        int ownerId = client.createUser("owner");
+        int itemId = client.createItem(ownerId, "Дрель");
+        client.createItem(ownerId, "Пила");
+        List<Integer> bookerIds = new ArrayList<>();
+        List<Integer> bookingIds = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            int bookerId = client.createUser("booker" + i);
+            bookerIds.add(bookerId);
+            client.saveBooking(itemId, bookerId, now.minusDays(10 - i), now.minusDays(9 - i), BookingStatus.APPROVED);
+            client.perform(post("/items/{itemId}/comment", itemId), bookerId, Map.of("text", "Отзыв " + i));
+            bookingIds.add(client.perform(post("/bookings"), bookerId, Map.of(
+                    "itemId", itemId,
+                    "start", now.plusDays(2L * i + 1),
+                    "end", now.plusDays(2L * i + 2))));
+        }
+        client.perform(post("/bookings/batch"), bookerIds.get(0), List.of(
+                Map.of("itemId", itemId, "start", now.plusDays(20), "end", now.plusDays(21)),
+                Map.of("itemId", itemId, "start", now.plusDays(22), "end", now.plusDays(23))));
+        client.perform(patch("/bookings/{bookingId}", bookingIds.get(0)).param("approved", "true"), ownerId, null);
+        client.perform(patch("/bookings/batch").param("approved", "true"), ownerId, bookingIds.subList(1, BOOKERS));
+
+        int requestId = client.perform(post("/requests"), bookerIds.get(0), Map.of("description", "Нужен перфоратор"));
+        client.perform(post("/items"), ownerId, Map.of("name", "Перфоратор", "description", "Перфоратор", "available", true,
+                "requestId", requestId));
+        client.perform(get("/requests"), bookerIds.get(0), null);
+        client.perform(get("/requests/all").param("size", "2"), ownerId, null);
+        client.perform(get("/requests/{requestId}", requestId), ownerId, null);
+
+        client.perform(get("/users"), null, null);
+        client.perform(get("/users/{userId}", ownerId), null, null);
+        client.perform(patch("/users/{userId}", ownerId), null, Map.of("name", "Владелец"));
+        client.perform(get("/items/{itemId}", itemId), ownerId, null);
+        client.perform(get("/items"), ownerId, null);
+        client.perform(get("/items/search").param("text", "дрель"), ownerId, null);
+        client.perform(get("/items/{itemId}/availability", itemId)
+                .param("from", now.toString())
+                .param("to", now.plusDays(30).toString()), bookerIds.get(0), null);
+        client.perform(patch("/items/{itemId}", itemId), ownerId, Map.of("description", "Аккумуляторная"));
+        client.perform(get("/bookings/{bookingId}", bookingIds.get(0)), ownerId, null);
+        client.perform(get("/bookings").param("state", "ALL"), bookerIds.get(0), null);
+        client.perform(get("/bookings/owner").param("state", "ALL"), ownerId, null);
+        client.perform(get("/bookings/summary"), bookerIds.get(0), null);
+        client.perform(get("/bookings/owner/summary"), ownerId, null);
+        client.perform(delete("/users/{userId}", client.createUser("removed")), null, null);
+
+        assertTrue(violations.getViolations().isEmpty(), () -> String.join("\n", violations.getViolations()));
+    }
+}
@@ -0,0 +1,173 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dao.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.item.comment.dao.CommentRepository;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.util.Cursor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Прогоняет EXPLAIN на H2 для каждого запроса репозиториев и падает,
+ * если хотя бы одна таблица читается полным просмотром.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=ru.practicum.shareit.SqlStatementCollector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class QueryPlanTests {
+    private static final String TABLE_SCAN = ".tableScan";
+    private static final Cursor CURSOR = Cursor.FIRST;
+    private static final Pageable PAGE = PageRequest.of(0, 10);
+    private static final List<Integer> ITEM_IDS = List.of(1, 2, 3);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void bookerQueriesUseIndexes() throws SQLException {
+        assertNoTableScan(() -> bookingRepository.findAllByBookerId(1, CURSOR.getTime(), CURSOR.getId(), PAGE));
+        assertNoTableScan(() -> bookingRepository.findAllCurrentByBooker(1, CURSOR.getTime(), CURSOR.getId(), PAGE));
+        assertNoTableScan(() -> bookingRepository.findAllPastByBooker(1, CURSOR.getTime(), CURSOR.getId(), PAGE));
+        assertNoTableScan(() -> bookingRepository.findAllFutureByBooker(1, CURSOR.getTime(), CURSOR.getId(), PAGE));
+        assertNoTableScan(() -> bookingRepository.findAllWaitingByBooker(1, CURSOR.getTime(), CURSOR.getId(), PAGE));
+        assertNoTableScan(() -> bookingRepository.findAllRejectedByBooker(1, CURSOR.getTime(), CURSOR.getId(), PAGE));
+        assertNoTableScan(() -> bookingRepository.existByBookerIdAndItemId(1, 1));
+        assertNoTableScan(() -> bookingRepository.findAllWithItemByIdIn(ITEM_IDS));
+        assertNoTableScan(() -> bookingRepository.findIdsWithStatus(ITEM_IDS, BookingStatus.APPROVED));
+        assertNoTableScan(() -> bookingRepository.summarizeByBooker(1));
+    }
+
+    @Test
+    void ownerQueriesUseIndexes() throws SQLException {
+        assertNoTableScan(() -> bookingRepository.findAllByItemOwner(1, CURSOR.getTime(), CURSOR.getId(), PAGE));
+        assertNoTableScan(() -> bookingRepository.findAllCurrentByItemOwner(1, CURSOR.getTime(), CURSOR.getId(), PAGE));
+        assertNoTableScan(() -> bookingRepository.findAllPastByItemOwner(1, CURSOR.getTime(), CURSOR.getId(), PAGE));
+        assertNoTableScan(() -> bookingRepository.findAllFutureByItemOwner(1, CURSOR.getTime(), CURSOR.getId(), PAGE));
+        assertNoTableScan(() -> bookingRepository.findAllWaitingByItemOwner(1, CURSOR.getTime(), CURSOR.getId(), PAGE));
+        assertNoTableScan(() -> bookingRepository.findAllRejectedByItemOwner(1, CURSOR.getTime(), CURSOR.getId(), PAGE));
+        assertNoTableScan(() -> readFirst(bookingRepository.streamAllByItemOwner(1)));
+        assertNoTableScan(() -> bookingRepository.summarizeByItemOwner(1));
+    }
+
+    @Test
+    void archiveQueriesUseIndexes() throws SQLException {
+        assertNoTableScan(() -> archivedBookingRepository.findAllByBookerId(1, CURSOR.getTime(), CURSOR.getId(), PAGE));
+        assertNoTableScan(() -> archivedBookingRepository.findAllByItemOwner(1, CURSOR.getTime(), CURSOR.getId(), PAGE));
+        assertNoTableScan(() -> readFirst(archivedBookingRepository.streamAllByItemOwner(1)));
+        assertNoTableScan(() -> archivedBookingRepository.existByBookerIdAndItemId(1, 1));
+        assertNoTableScan(() -> archivedBookingRepository.findLastEndsByItemIds(ITEM_IDS));
+        assertNoTableScan(() -> archivedBookingRepository.countByBookerId(1));
+        assertNoTableScan(() -> archivedBookingRepository.countByItemOwner(1));
+        assertNoTableScan(() -> bookingRepository.lockApprovedEndedBefore(LocalDateTime.now(), PAGE));
+    }
+
+    @Test
+    void ownerDashboardQueryUsesIndexes() throws SQLException {
+        assertNoTableScan(() -> itemRepository.findOwnerDashboard(1, 0, LocalDateTime.now(), PAGE));
+    }
+
+    @Test
+    void admissionQueriesUseIndexes() throws SQLException {
+        assertNoTableScan(() -> itemRepository.findByIdForUpdate(1));
+        assertNoTableScan(() -> bookingRepository.findLastApprovedStartingBefore(1, LocalDateTime.now()));
+        assertNoTableScan(() -> itemRepository.findAllByIdForUpdate(ITEM_IDS));
+        assertNoTableScan(() -> bookingRepository.findApprovedOverlapping(1, LocalDateTime.now(), LocalDateTime.now()));
+        assertNoTableScan(() -> bookingRepository.findActiveIntervals(1, LocalDateTime.now()));
+    }
+
+    @Test
+    void itemQueriesUseIndexes() throws SQLException {
+        assertNoTableScan(() -> itemRepository.existByOwnerId(1));
+        assertNoTableScan(() -> itemRepository.findByIdForceIncrement(1));
+        assertNoTableScan(() -> itemRepository.incrementVersionOfItemsCommentedBy(1));
+        assertNoTableScan(() -> itemRepository.findSearchDocuments(0, PAGE));
+    }
+
+    @Test
+    void commentQueriesUseIndexes() throws SQLException {
+        assertNoTableScan(() -> commentRepository.findByItemId(1));
+        assertNoTableScan(() -> commentRepository.findByItemIdIn(ITEM_IDS));
+    }
+
+    @Test
+    void itemRequestQueriesUseIndexes() throws SQLException {
+        assertNoTableScan(() -> itemRequestRepository.findDtoById(1));
+        assertNoTableScan(() -> itemRequestRepository.findAllByRequester(1));
+        assertNoTableScan(() -> itemRequestRepository.findFeed(1, LocalDateTime.now(), Integer.MAX_VALUE, PAGE));
+        assertNoTableScan(() -> itemRepository.findAnswersByRequestIds(ITEM_IDS));
+    }
+
+    @Test
+    void userQueriesUseIndexes() throws SQLException {
+        assertNoTableScan(() -> userRepository.existsByEmailAndIdNot("user@mail.ru", 0));
+        assertNoTableScan(() -> userRepository.findUsersAfter(0, PAGE));
+    }
+
+    /**
+     * Запрос потока выполняется только при чтении первой строки, закрыть поток недостаточно.
+     */
+    private static void readFirst(Stream<?> stream) {
+        try (stream) {
+            stream.findFirst();
+        }
+    }
+
+    private void assertNoTableScan(Runnable query) throws SQLException {
+        SqlStatementCollector.clear();
+        query.run();
+        List<String> statements = SqlStatementCollector.getStatements();
+        assertFalse(statements.isEmpty(), "запрос не был выполнен");
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertFalse(plan.contains(TABLE_SCAN), () -> "полный просмотр таблицы в плане запроса:\n" + plan);
+        }
+    }
+
+    private String explain(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            int parameterCount = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameterCount; i++) {
+                statement.setNull(i, Types.NULL);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+}
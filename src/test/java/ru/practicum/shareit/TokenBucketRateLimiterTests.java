@@ -0,0 +1,42 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import ru.practicum.shareit.ratelimit.RateLimitGroup;
+import ru.practicum.shareit.ratelimit.TokenBucketRateLimiter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketRateLimiterTests {
+
+    @Test
+    void rejectsAfterBurstPerUserAndGroup() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("shareit.rate-limit.search.capacity", "3")
+                .withProperty("shareit.rate-limit.search.per-second", "0.001");
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(environment, 4, 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(1, RateLimitGroup.SEARCH));
+        }
+        assertTrue(limiter.tryAcquire(1, RateLimitGroup.SEARCH) > 0);
+        assertEquals(0, limiter.tryAcquire(2, RateLimitGroup.SEARCH));
+        assertEquals(0, limiter.tryAcquire(1, RateLimitGroup.DEFAULT));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBuckets() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("shareit.rate-limit.search.capacity", "1")
+                .withProperty("shareit.rate-limit.search.per-second", "0.001");
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(environment, 1, 10);
+
+        assertEquals(0, limiter.tryAcquire(1, RateLimitGroup.SEARCH));
+        for (int userId = 2; userId < 100; userId++) {
+            limiter.tryAcquire(userId, RateLimitGroup.SEARCH);
+        }
+
+        assertEquals(0, limiter.tryAcquire(1, RateLimitGroup.SEARCH));
+    }
+}
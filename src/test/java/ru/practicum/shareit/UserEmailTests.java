@@ -0,0 +1,64 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.user.service.EmailBloomFilter;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Уникальность email: фильтр Блума только отсекает заведомо новые адреса, а положительный
+ * ответ фильтра, в том числе ложный для освободившегося адреса, перепроверяется в базе.
+ * Адреса, отличающиеся только регистром, считаются одним адресом.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(ApiTestClient.class)
+class UserEmailTests {
+
+    @Autowired
+    private ApiTestClient client;
+    @Autowired
+    private EmailBloomFilter emailBloomFilter;
+
+    @Test
+    void falsePositiveFallsBackToDatabase() throws Exception {
+        String email = "bloom" + System.nanoTime() + "@mail.ru";
+        assertFalse(emailBloomFilter.mightContain(email));
+
+        int userId = client.perform(post("/users"), null, Map.of("name", "first", "email", email));
+        assertTrue(emailBloomFilter.mightContain(email.toUpperCase()));
+        client.send(post("/users"), null, Map.of("name", "second", "email", email))
+                .andExpect(status().isConflict());
+
+        // адрес освободился, но из фильтра не удаляется: создание проходит после проверки в базе
+        client.perform(patch("/users/{userId}", userId), null, Map.of("email", "moved" + email));
+        assertTrue(emailBloomFilter.mightContain(email));
+        client.perform(post("/users"), null, Map.of("name", "second", "email", email));
+    }
+
+    @Test
+    void emailIsUniqueRegardlessOfCase() throws Exception {
+        String email = "Case" + System.nanoTime() + "@Mail.ru";
+
+        JsonNode created = client.read(post("/users"), null, Map.of("name", "first", "email", email));
+        assertEquals(email.toLowerCase(), created.path("email").asText());
+        client.send(post("/users"), null, Map.of("name", "second", "email", email.toUpperCase()))
+                .andExpect(status().isConflict());
+
+        int otherId = client.perform(post("/users"), null, Map.of("name", "other", "email", "other" + email));
+        client.send(patch("/users/{userId}", otherId), null, Map.of("email", email.toLowerCase()))
+                .andExpect(status().isConflict());
+    }
+}
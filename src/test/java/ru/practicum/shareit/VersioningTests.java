@@ -0,0 +1,125 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Версии вещей и бронирований: ETag меняется при каждом изменении, If-None-Match с текущим
+ * ETag дает 304, а изменение по устаревшей версии отклоняется.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(ApiTestClient.class)
+class VersioningTests {
+
+    @Autowired
+    private ApiTestClient client;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void itemETagChangesWithItemAndComments() throws Exception {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        int ownerId = client.createUser("owner");
+        int bookerId = client.createUser("booker");
+        int itemId = client.createItem(ownerId, "Гамак");
+        client.saveBooking(itemId, bookerId, now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+
+        String eTag = eTag(get("/items/{itemId}", itemId), null);
+        client.send(get("/items/{itemId}", itemId).header(HttpHeaders.IF_NONE_MATCH, eTag), null, null)
+                .andExpect(status().isNotModified());
+
+        client.perform(patch("/items/{itemId}", itemId), ownerId, Map.of("description", "двухместный"));
+        String updated = eTag(get("/items/{itemId}", itemId), null);
+        assertNotEquals(eTag, updated);
+        client.send(get("/items/{itemId}", itemId).header(HttpHeaders.IF_NONE_MATCH, eTag), null, null)
+                .andExpect(status().isOk());
+
+        client.perform(post("/items/{itemId}/comment", itemId), bookerId, Map.of("text", "удобный"));
+        assertNotEquals(updated, eTag(get("/items/{itemId}", itemId), null));
+    }
+
+    @Test
+    void bookingETagChecksAccessBeforeNotModified() throws Exception {
+        LocalDateTime day = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+        int ownerId = client.createUser("owner");
+        int bookerId = client.createUser("booker");
+        int strangerId = client.createUser("stranger");
+        int itemId = client.createItem(ownerId, "Гамак");
+        int bookingId = client.saveBooking(itemId, bookerId, day, day.plusDays(1), BookingStatus.WAITING);
+
+        String eTag = eTag(get("/bookings/{bookingId}", bookingId), bookerId);
+        client.send(get("/bookings/{bookingId}", bookingId).header(HttpHeaders.IF_NONE_MATCH, eTag), bookerId, null)
+                .andExpect(status().isNotModified());
+        client.send(get("/bookings/{bookingId}", bookingId).header(HttpHeaders.IF_NONE_MATCH, eTag), strangerId, null)
+                .andExpect(status().is4xxClientError());
+
+        client.perform(patch("/bookings/{bookingId}", bookingId).param("approved", "true"), ownerId, null);
+        assertNotEquals(eTag, eTag(get("/bookings/{bookingId}", bookingId), bookerId));
+    }
+
+    @Test
+    void staleItemUpdateIsRejected() throws Exception {
+        int ownerId = client.createUser("owner");
+        int itemId = client.createItem(ownerId, "Гамак");
+        TransactionTemplate outer = new TransactionTemplate(transactionManager);
+        TransactionTemplate concurrent = new TransactionTemplate(transactionManager);
+        concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        ItemUpdateDto update = new ItemUpdateDto();
+        update.setName("Гамак-конфликт");
+
+        assertThrows(OptimisticLockingFailureException.class, () -> outer.executeWithoutResult(status -> {
+            // вещь прочитана до параллельного изменения и обновляется по старой версии
+            itemRepository.findById(itemId).orElseThrow();
+            concurrent.executeWithoutResult(inner -> {
+                Item item = itemRepository.findById(itemId).orElseThrow();
+                item.setDescription("изменено параллельно");
+            });
+            itemService.update(update, itemId, ownerId);
+        }));
+
+        Item item = itemRepository.findById(itemId).orElseThrow();
+        assertEquals("Гамак", item.getName());
+        assertEquals("изменено параллельно", item.getDescription());
+        assertTrue(itemService.search("конфликт").isEmpty());
+    }
+
+    private String eTag(MockHttpServletRequestBuilder request, Integer userId) throws Exception {
+        return client.send(request, userId, null)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+    }
+}